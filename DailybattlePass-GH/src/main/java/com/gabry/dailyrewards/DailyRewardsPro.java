@@ -1,36 +1,77 @@
 package com.gabry.dailyrewards;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.Material;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Classe principale del plugin DailyRewardsPro.
  * Gestisce tutte le funzionalità del plugin, inclusi ricompense giornaliere, BattlePass,
  * GUI personalizzate, gestione dei file di configurazione e dati dei giocatori.
  * Tutte le logiche sono contenute in questa singola classe, come richiesto.
+ * Il plugin è compatibile con Folia: le azioni sui giocatori girano sullo scheduler del giocatore,
+ * i task globali sullo scheduler della regione globale e l'I/O sullo scheduler asincrono.
+ * Per questo i dati condivisi sono in strutture thread-safe.
  */
 public class DailyRewardsPro extends JavaPlugin implements Listener {
 
@@ -39,46 +80,130 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
     // File di configurazione per i dati dei giocatori (data ultimo riscatto, XP BattlePass)
     private File dataFile;
     private FileConfiguration dataConfig;
+    // true se un salvataggio di data.yml è già pianificato sullo scheduler asincrono.
+    private final AtomicBoolean playerDataSavePending = new AtomicBoolean();
 
     // Mappa per memorizzare i dati dell'ultimo riscatto di ciascun giocatore per un accesso rapido.
     // UUID del giocatore -> Data dell'ultimo riscatto (LocalDate)
-    private final Map<UUID, LocalDate> lastClaimDates = new HashMap<>();
+    private final Map<UUID, LocalDate> lastClaimDates = new ConcurrentHashMap<>();
 
     // Mappa per memorizzare l'XP del BattlePass di ciascun giocatore.
     // UUID del giocatore -> Punti esperienza
-    private final Map<UUID, Integer> playerBattlePassXp = new HashMap<>();
+    private final Map<UUID, Integer> playerBattlePassXp = new ConcurrentHashMap<>();
+
+    // Mappa dell'ultimo accesso di ciascun giocatore, usata per archiviare i profili inattivi.
+    // UUID del giocatore -> Data dell'ultimo accesso
+    private final Map<UUID, LocalDate> lastSeenDates = new ConcurrentHashMap<>();
+
+    // Mappa dei livelli BattlePass già riscattati da ciascun giocatore nella sua stagione.
+    // UUID del giocatore -> Livelli riscattati
+    private final Map<UUID, Set<Integer>> playerClaimedLevels = new ConcurrentHashMap<>();
+
+    // Mappa della generazione di stagione a cui appartengono i dati BattlePass di ciascun giocatore.
+    // UUID del giocatore -> Generazione della stagione
+    private final Map<UUID, Integer> playerSeasonGenerations = new ConcurrentHashMap<>();
 
     // Mappa che associa gli UUID dei giocatori agli inventari GUI aperti, per gestire le interazioni.
-    private final Map<UUID, Inventory> openClaimGUIs = new HashMap<>();
-    private final Map<UUID, Inventory> openBattlePassGUIs = new HashMap<>();
+    private final Map<UUID, Inventory> openClaimGUIs = new ConcurrentHashMap<>();
+    private final Map<UUID, Inventory> openBattlePassGUIs = new ConcurrentHashMap<>();
+    private final Map<UUID, Inventory> openMailboxGUIs = new ConcurrentHashMap<>();
+
+    // Cassetta delle ricompense non consegnate perché l'inventario era pieno.
+    // UUID del giocatore -> Item in attesa di consegna (già accorpati in stack pieni).
+    // Le liste sono copy-on-write e gli item non vengono mai modificati dopo l'inserimento,
+    // così i salvataggi in background leggono sempre una copia coerente.
+    private final Map<UUID, List<ItemStack>> pendingRewardMailboxes = new ConcurrentHashMap<>();
+
+    // Stato dei riscatti di ciascun giocatore: true se un riscatto è in corso.
+    // Le transizioni avvengono solo con compare-and-set, quindi un secondo clic non può avviare un riscatto parallelo.
+    private final Map<UUID, AtomicBoolean> playerClaimStates = new ConcurrentHashMap<>();
+
+    // Valori dei placeholder già formattati per ciascun giocatore, letti da scoreboard e tab list.
+    // Vengono invalidati solo quando cambiano XP, riscatti o giorno.
+    // UUID del giocatore -> Placeholder -> Valore formattato
+    private final Map<UUID, Map<String, String>> placeholderCache = new ConcurrentHashMap<>();
+    private volatile LocalDate placeholderCacheDay = LocalDate.now();
+    // Contatori delle invalidazioni, per giocatore e globale: un ricalcolo viene memorizzato
+    // solo se durante il calcolo non è avvenuta nessuna invalidazione.
+    private final Map<UUID, AtomicLong> placeholderVersions = new ConcurrentHashMap<>();
+    private final AtomicLong placeholderEpoch = new AtomicLong();
+    private final PlaceholderProvider placeholderProvider = this::getCachedPlaceholder;
+
+    // Operazioni amministrative in blocco in esecuzione, eseguite a piccoli lotti su più tick.
+    // Id operazione -> Operazione
+    private static final int ADMIN_JOB_BATCH_SIZE = 500;
+    private static final long ADMIN_JOB_TICK_BUDGET_NANOS = 5_000_000L; // 5 ms per tick al massimo
+    private final Map<Integer, AdminJob> runningAdminJobs = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextAdminJobId = new AtomicInteger(1);
 
     // Mappa per memorizzare le ricompense caricate dal file rewards.yml.
     // Nome ricompensa (chiave) -> Dettagli ricompensa (oggetto RewardItem)
     private final Map<String, RewardItem> availableRewards = new HashMap<>();
 
-    // Livelli del BattlePass con le soglie XP e le ricompense associate.
-    // Numero livello -> Soglia XP
-    private final Map<Integer, Integer> battlePassLevelThresholds = new TreeMap<>();
-    // Numero livello -> Lista di ItemStack per le ricompense di quel livello
-    private final Map<Integer, List<ItemStack>> battlePassLevelRewards = new HashMap<>();
-    // Numero livello -> Lista di comandi da eseguire al raggiungimento del livello
-    private final Map<Integer, List<String>> battlePassLevelCommands = new HashMap<>();
+    // File di configurazione delle stagioni del BattlePass e storico compresso dei risultati finali.
+    private FileConfiguration seasonsConfig;
+    private File seasonHistoryFile;
+
+    // Stagioni caricate da seasons.yml, ordinate per generazione.
+    // Generazione stagione -> Stagione
+    private final Map<Integer, BattlePassSeason> battlePassSeasons = new TreeMap<>();
+    // Tabella dei livelli predefinita, usata quando nessuna stagione è iniziata o una stagione non definisce livelli.
+    private BattlePassSeason defaultSeason;
+    // Stagione attiva con le sue tabelle dei livelli immutabili. Il cambio di stagione sostituisce solo questo
+    // riferimento: chi legge ne prende una copia locale e vede generazione e tabelle sempre coerenti tra loro.
+    // I dati dei giocatori vengono azzerati al primo accesso.
+    private volatile BattlePassSeason activeSeason;
+
+    // Righe dello storico stagioni in attesa di essere scritte su disco dal task asincrono.
+    private final Queue<String> pendingSeasonHistory = new ConcurrentLinkedQueue<>();
+
+    // Registro di audit delle transazioni: gli eventi passano da un ring buffer lock-free
+    // e vengono scritti da un task asincrono in file giornalieri compressi (audit/audit-YYYY-MM-DD.csv.gz).
+    private static final int AUDIT_BUFFER_CAPACITY = 32768; // Basta per un secondo di operazioni in blocco
+    private static final int AUDIT_RETENTION_DAYS = 30;
+    private static final int AUDIT_QUERY_MAX_RESULTS = 20;
+    private final AuditRingBuffer auditBuffer = new AuditRingBuffer(AUDIT_BUFFER_CAPACITY);
+    // Lock della scrittura dei file di audit, separato da quello dei salvataggi di data.yml.
+    private final Object auditLock = new Object();
+    private File auditFolder;
+    // Data dell'ultimo file di audit scritto, usata per applicare la retention a ogni rotazione.
+    private LocalDate lastAuditRotationDate;
+
+    // Archivio freddo dei profili inattivi: file YAML compressi suddivisi per le prime due cifre dell'UUID.
+    private File coldArchiveFolder;
+    private final Object coldArchiveLock = new Object();
+    // Lock per giocatore (a strisce) condivisi dalle operazioni amministrative e dall'archiviazione:
+    // un giocatore viene tolto dai dati attivi solo se non è stato modificato dopo la copia archiviata.
+    private static final int PLAYER_DATA_LOCK_STRIPES = 64;
+    private final Object[] playerDataLocks = Stream.generate(Object::new).limit(PLAYER_DATA_LOCK_STRIPES).toArray();
+    // Ultima modifica di ciascun giocatore, presa da un contatore globale crescente.
+    // UUID del giocatore -> Numero della modifica
+    private final Map<UUID, Long> playerDataStamps = new ConcurrentHashMap<>();
+    private final AtomicLong playerDataStampCounter = new AtomicLong();
+    // Giocatori tra il pre-login e l'ingresso: non vengono archiviati anche se non risultano ancora online.
+    // UUID del giocatore -> Istante del pre-login (millisecondi); dopo LOGIN_GRACE_MILLIS l'ingresso si considera fallito.
+    private static final long LOGIN_GRACE_MILLIS = 60_000L;
+    private final Map<UUID, Long> loginsInProgress = new ConcurrentHashMap<>();
+
+    // Backup incrementali: giocatori modificati dall'ultimo backup
+    // e backup dall'ultimo completo (-1 forza un backup completo, ad esempio dopo l'avvio o un ripristino).
+    private static final DateTimeFormatter BACKUP_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final int BACKUP_LIST_MAX_RESULTS = 15;
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger backupsSinceFull = new AtomicInteger(-1);
+    private File backupFolder;
+    private final Object backupLock = new Object();
 
     // Configurazione dei messaggi del plugin.
     private final String prefix = ChatColor.GOLD + "[DRP] " + ChatColor.RESET;
-    private String noPermissionMessage = ChatColor.RED + "Non hai il permesso di fare questo!";
-    private String claimedTodayMessage = ChatColor.YELLOW + "Hai già riscattato la tua ricompensa giornaliera. Riprova domani!";
-    private String rewardReceivedMessage = ChatColor.GREEN + "Hai ricevuto una ricompensa giornaliera!";
-    private String claimGUITitle = ChatColor.DARK_BLUE + "" + ChatColor.BOLD + "Ricompense Giornaliere";
-    private String battlePassGUITitle = ChatColor.DARK_AQUA + "" + ChatColor.BOLD + "BattlePass Progressi";
-    private String battlePassLevelUpMessage = ChatColor.LIGHT_PURPLE + "Congratulazioni! Hai raggiunto il livello %level% del BattlePass!";
-    private String battlePassXpGainMessage = ChatColor.AQUA + "+%xp% XP BattlePass!";
-    private String battlePassMaxLevelMessage = ChatColor.GOLD + "Hai raggiunto il livello massimo del BattlePass!";
-    private String battlePassClaimedRewardMessage = ChatColor.GRAY + "Ricompensa riscattata.";
-    private String battlePassUnclaimedRewardMessage = ChatColor.GREEN + "Clicca per riscattare!";
-    private String battlePassLockedRewardMessage = ChatColor.RED + "Livello non raggiunto.";
-    private String battlePassXPDisplayFormat = ChatColor.BLUE + "XP: %current_xp% / %next_level_xp%";
-    private String battlePassLevelDisplayFormat = ChatColor.DARK_GREEN + "Livello: %level%";
+
+    // Cataloghi dei messaggi caricati dai file messages_<locale>.yml, con i template già compilati.
+    // Locale in minuscolo (es. "it", "en_us") -> Catalogo
+    private static final String DEFAULT_MESSAGE_LOCALE = "it";
+    private final Map<String, MessageCatalog> messageCatalogs = new HashMap<>();
+    private MessageCatalog defaultMessageCatalog;
+    // UUID del giocatore -> Catalogo scelto in base alla lingua del client
+    private final Map<UUID, MessageCatalog> playerMessageCatalogs = new ConcurrentHashMap<>();
 
     // --- Sezione Ciclo di Vita del Plugin ---
 
@@ -90,16 +215,55 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
         // Registra i comandi del plugin.
         Objects.requireNonNull(getCommand("claim")).setExecutor(this);
         Objects.requireNonNull(getCommand("battlepass")).setExecutor(this);
+        Objects.requireNonNull(getCommand("drp")).setExecutor(this);
 
         // Inizializza i file di configurazione.
         setupConfigFiles();
 
-        // Carica le ricompense e i dati dei giocatori all'avvio.
+        // Carica la configurazione del BattlePass e le stagioni prima dei dati dei giocatori,
+        // così i giocatori senza generazione salvata vengono associati alla stagione attiva.
+        loadBattlePassConfig();
+        loadSeasonsFromFile();
+        refreshActiveSeason();
+
+        // Carica le ricompense, i messaggi e i dati dei giocatori all'avvio.
+        loadMessageCatalogs();
         loadRewardsFromFile();
         loadPlayerDataFromFile();
 
-        // Carica la configurazione del BattlePass.
-        loadBattlePassConfig();
+        // Controlla ogni minuto il cambio di stagione (un semplice aggiornamento del contatore di generazione)
+        // e il cambio di giorno, che rende obsoleto lo stato "riscattato oggi" dei placeholder.
+        getServer().getGlobalRegionScheduler().runAtFixedRate(this, task -> {
+            refreshActiveSeason();
+            if (!LocalDate.now().equals(placeholderCacheDay)) {
+                placeholderCacheDay = LocalDate.now();
+                invalidateAllPlaceholders();
+            }
+        }, 20L * 60, 20L * 60);
+
+        // Sposta periodicamente nell'archivio freddo i giocatori inattivi, interamente in background.
+        long pruneIntervalMinutes = Math.max(1, getConfig().getInt("inactive-players.check-interval-minutes", 60));
+        getServer().getAsyncScheduler().runAtFixedRate(this, task -> pruneInactivePlayers(), 5, pruneIntervalMinutes, TimeUnit.MINUTES);
+
+        // Backup periodici dei dati giocatori: la copia avviene sulla regione globale, la scrittura in background.
+        int backupIntervalMinutes = getConfig().getInt("backups.interval-minutes", 30);
+        if (backupIntervalMinutes > 0) {
+            getServer().getGlobalRegionScheduler().runAtFixedRate(this, task -> runBackup(null, false),
+                    20L * 60 * backupIntervalMinutes, 20L * 60 * backupIntervalMinutes);
+        }
+
+        // Espone i placeholder ad altri plugin e, se presente, a PlaceholderAPI.
+        getServer().getServicesManager().register(PlaceholderProvider.class, placeholderProvider, this, ServicePriority.Normal);
+        if (getServer().getPluginManager().isPluginEnabled("PlaceholderAPI")) {
+            new DailyRewardsExpansion(this).register();
+            getLogger().log(Level.INFO, "Placeholder registrati in PlaceholderAPI.");
+        }
+
+        // Scrive periodicamente lo storico delle stagioni concluse senza bloccare i thread di gioco.
+        getServer().getAsyncScheduler().runAtFixedRate(this, task -> flushSeasonHistory(), 5, 5, TimeUnit.MINUTES);
+
+        // Scrive ogni secondo gli eventi di audit accumulati nel ring buffer.
+        getServer().getAsyncScheduler().runAtFixedRate(this, task -> flushAuditLog(), 1, 1, TimeUnit.SECONDS);
 
         // Log di successo all'abilitazione del plugin.
         getLogger().log(Level.INFO, prefix + "DailyRewardsPro abilitato con successo!");
@@ -108,13 +272,60 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
 
     @Override
     public void onDisable() {
+        // Ferma i task periodici, così le scritture finali non si sovrappongono a quelle pianificate.
+        getServer().getGlobalRegionScheduler().cancelTasks(this);
+        getServer().getAsyncScheduler().cancelTasks(this);
+
         // Salva i dati dei giocatori prima che il plugin venga disabilitato.
         savePlayerDataToFile();
+        flushSeasonHistory();
+        flushAuditLog();
+
+        // Ultimo backup con le modifiche non ancora salvate, scritto subito perché lo scheduler è già fermo.
+        if (!dirtyPlayers.isEmpty() && getConfig().getInt("backups.interval-minutes", 30) > 0) {
+            try {
+                writeBackupFile(LocalDateTime.now().format(BACKUP_ID_FORMAT), createBackupSnapshot(backupsSinceFull.get() < 0, new HashSet<>(dirtyPlayers)));
+            } catch (IOException e) {
+                getLogger().log(Level.SEVERE, "Impossibile scrivere il backup finale: " + e.getMessage());
+            }
+        }
 
         // Log di disabilitazione del plugin.
         getLogger().log(Level.INFO, prefix + "DailyRewardsPro disabilitato con successo!");
     }
 
+    // --- Sezione Scheduling ---
+
+    /**
+     * Esegue un'azione sul thread che possiede il giocatore: subito se ci si trova già lì,
+     * altrimenti tramite lo scheduler del giocatore. Se il giocatore esce prima dell'esecuzione l'azione viene scartata.
+     *
+     * @param player Il giocatore.
+     * @param action L'azione da eseguire.
+     */
+    private void runForPlayer(Player player, Runnable action) {
+        if (getServer().isOwnedByCurrentRegion(player)) {
+            action.run();
+        } else {
+            player.getScheduler().run(this, task -> action.run(), null);
+        }
+    }
+
+    /**
+     * Esegue un'azione per chi ha lanciato un comando: sullo scheduler del giocatore
+     * oppure, per la console, sulla regione globale. Usato per rispondere dopo un lavoro in background.
+     *
+     * @param sender Chi ha lanciato il comando.
+     * @param action L'azione da eseguire.
+     */
+    private void runForSender(CommandSender sender, Runnable action) {
+        if (sender instanceof Player) {
+            ((Player) sender).getScheduler().run(this, task -> action.run(), null);
+        } else {
+            getServer().getGlobalRegionScheduler().execute(this, action);
+        }
+    }
+
     // --- Sezione Gestione File ---
 
     /**
@@ -148,6 +359,48 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
         }
         dataConfig = YamlConfiguration.loadConfiguration(dataFile);
         getLogger().log(Level.INFO, "Caricato data.yml.");
+
+        // Inizializza il file seasons.yml
+        File seasonsFile = new File(getDataFolder(), "seasons.yml");
+        if (!seasonsFile.exists()) {
+            // Copia il file predefinito dalla risorsa JAR se non esiste.
+            saveResource("seasons.yml", false);
+            getLogger().log(Level.INFO, "Copiato seasons.yml predefinito.");
+        }
+        seasonsConfig = YamlConfiguration.loadConfiguration(seasonsFile);
+        getLogger().log(Level.INFO, "Caricato seasons.yml.");
+
+        // Inizializza i cataloghi dei messaggi predefiniti (italiano e inglese).
+        for (String locale : Arrays.asList(DEFAULT_MESSAGE_LOCALE, "en")) {
+            if (!new File(getDataFolder(), "messages_" + locale + ".yml").exists()) {
+                saveResource("messages_" + locale + ".yml", false);
+                getLogger().log(Level.INFO, "Copiato messages_" + locale + ".yml predefinito.");
+            }
+        }
+
+        // Lo storico delle stagioni viene creato alla prima scrittura.
+        seasonHistoryFile = new File(getDataFolder(), "season_history.csv.gz");
+
+        // config.yml con le impostazioni generali del plugin.
+        saveDefaultConfig();
+
+        // Cartella dell'archivio freddo dei giocatori inattivi.
+        coldArchiveFolder = new File(getDataFolder(), "archive");
+        if (!coldArchiveFolder.exists()) {
+            coldArchiveFolder.mkdirs();
+        }
+
+        // Cartella dei backup dei dati giocatori.
+        backupFolder = new File(getDataFolder(), "backups");
+        if (!backupFolder.exists()) {
+            backupFolder.mkdirs();
+        }
+
+        // Cartella dei file di audit.
+        auditFolder = new File(getDataFolder(), "audit");
+        if (!auditFolder.exists()) {
+            auditFolder.mkdirs();
+        }
     }
 
     /**
@@ -194,8 +447,7 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
      * Carica i dati dei giocatori (ultima data di riscatto e XP BattlePass) dal file `data.yml`.
      */
     private void loadPlayerDataFromFile() {
-        lastClaimDates.clear();
-        playerBattlePassXp.clear();
+        clearPlayerData();
 
         if (!dataConfig.isConfigurationSection("players")) {
             getLogger().log(Level.WARNING, "La sezione 'players' non è presente in data.yml. Nessun dato giocatore caricato.");
@@ -204,48 +456,293 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
 
         for (String uuidStr : Objects.requireNonNull(dataConfig.getConfigurationSection("players")).getKeys(false)) {
             try {
-                UUID playerUUID = UUID.fromString(uuidStr);
-                String path = "players." + uuidStr;
+                readPlayerProfile(Objects.requireNonNull(dataConfig.getConfigurationSection("players." + uuidStr)), UUID.fromString(uuidStr));
+            } catch (IllegalArgumentException e) {
+                getLogger().log(Level.WARNING, "UUID non valido trovato in data.yml: " + uuidStr + ". Ignorato. Errore: " + e.getMessage());
+            }
+        }
+        getLogger().log(Level.INFO, "Caricati i dati di " + playerBattlePassXp.size() + " giocatori da data.yml.");
+    }
 
-                // Carica l'ultima data di riscatto.
-                String dateString = dataConfig.getString(path + ".last_claim_date");
-                if (dateString != null) {
-                    try {
-                        lastClaimDates.put(playerUUID, LocalDate.parse(dateString));
-                    } catch (DateTimeParseException e) {
-                        getLogger().log(Level.WARNING, "Formato data non valido per " + uuidStr + " in data.yml. Ignorato. Errore: " + e.getMessage());
-                    }
+    /**
+     * Svuota tutti i dati dei giocatori in memoria.
+     */
+    private void clearPlayerData() {
+        lastClaimDates.clear();
+        playerBattlePassXp.clear();
+        playerClaimedLevels.clear();
+        playerSeasonGenerations.clear();
+        pendingRewardMailboxes.clear();
+        lastSeenDates.clear();
+        invalidateAllPlaceholders();
+    }
+
+    /**
+     * Carica nelle mappe in memoria il profilo di un giocatore letto da data.yml o dall'archivio freddo.
+     *
+     * @param profile La sezione con i dati del giocatore.
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void readPlayerProfile(ConfigurationSection profile, UUID playerUUID) {
+        // Carica l'ultima data di riscatto.
+        String dateString = profile.getString("last_claim_date");
+        if (dateString != null) {
+            try {
+                lastClaimDates.put(playerUUID, LocalDate.parse(dateString));
+            } catch (DateTimeParseException e) {
+                getLogger().log(Level.WARNING, "Formato data non valido per " + playerUUID + ". Ignorato. Errore: " + e.getMessage());
+            }
+        }
+
+        // Carica l'ultimo accesso. I profili salvati prima di questo campo usano l'ultimo riscatto o la data odierna.
+        String lastSeenString = profile.getString("last_seen_date");
+        LocalDate lastSeen = null;
+        if (lastSeenString != null) {
+            try {
+                lastSeen = LocalDate.parse(lastSeenString);
+            } catch (DateTimeParseException e) {
+                getLogger().log(Level.WARNING, "Data di ultimo accesso non valida per " + playerUUID + ". Ignorata. Errore: " + e.getMessage());
+            }
+        }
+        lastSeenDates.put(playerUUID, lastSeen != null ? lastSeen : lastClaimDates.getOrDefault(playerUUID, LocalDate.now()));
+
+        // Carica l'XP del BattlePass.
+        int xp = profile.getInt("battlepass_xp", 0);
+        playerBattlePassXp.put(playerUUID, xp);
+
+        // Carica i livelli già riscattati.
+        List<Integer> claimedLevels = profile.getIntegerList("battlepass_claimed_levels");
+        if (!claimedLevels.isEmpty()) {
+            Set<Integer> levels = ConcurrentHashMap.newKeySet();
+            levels.addAll(claimedLevels);
+            playerClaimedLevels.put(playerUUID, levels);
+        }
+
+        // Carica la generazione di stagione. I dati salvati prima delle stagioni appartengono a quella attiva.
+        int generation = profile.getInt("season_generation", activeSeason.getGeneration());
+        playerSeasonGenerations.put(playerUUID, generation);
+
+        // Carica la cassetta delle ricompense non consegnate (item serializzati in Base64).
+        List<ItemStack> mailbox = readMailbox(profile, playerUUID);
+        if (!mailbox.isEmpty()) {
+            pendingRewardMailboxes.put(playerUUID, new CopyOnWriteArrayList<>(mailbox));
+        }
+    }
+
+    /**
+     * Decodifica la cassetta delle ricompense salvata in un profilo, ignorando gli item non validi.
+     *
+     * @param profile La sezione con i dati del giocatore.
+     * @param playerUUID L'UUID del giocatore, per i messaggi di errore.
+     * @return Gli item della cassetta.
+     */
+    private List<ItemStack> readMailbox(ConfigurationSection profile, UUID playerUUID) {
+        List<ItemStack> mailbox = new ArrayList<>();
+        for (String encodedItem : profile.getStringList("mailbox")) {
+            try {
+                mailbox.add(ItemStack.deserializeBytes(Base64.getDecoder().decode(encodedItem)));
+            } catch (Exception e) {
+                getLogger().log(Level.WARNING, "Item non valido nella cassetta di " + playerUUID + ". Ignorato. Errore: " + e.getMessage());
+            }
+        }
+        return mailbox;
+    }
+
+    /**
+     * Unisce un profilo archiviato ai dati attivi di un giocatore che ha già un profilo in memoria.
+     * Se il profilo attivo è nato dopo l'archiviazione (ad esempio perché il ripristino all'ingresso non è riuscito),
+     * contiene solo progressi successivi e nulla va perso: XP e livelli della stessa stagione vengono sommati,
+     * i dati di una stagione precedente finiscono nello storico e la cassetta viene accodata.
+     * Se invece il profilo attivo è una copia dello stesso giocatore precedente all'archiviazione (nessuna attività
+     * da allora), sommarli conterebbe due volte gli stessi progressi: resta solo il profilo archiviato, più recente.
+     *
+     * @param profile Il profilo archiviato.
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void mergeArchivedProfile(ConfigurationSection profile, UUID playerUUID) {
+        LocalDate archivedDate = null;
+        String archivedDateString = profile.getString("archived_date");
+        if (archivedDateString != null) {
+            try {
+                archivedDate = LocalDate.parse(archivedDateString);
+            } catch (DateTimeParseException e) {
+                getLogger().log(Level.WARNING, "Data di archiviazione non valida per " + playerUUID + ". Ignorata. Errore: " + e.getMessage());
+            }
+        }
+        if (archivedDate != null && getLastActivityDate(playerUUID).isBefore(archivedDate)) {
+            getLogger().log(Level.WARNING, "Il profilo attivo di " + playerUUID + " è precedente all'archiviazione: viene sostituito da quello archiviato.");
+            clearPlayerProfile(playerUUID);
+            readPlayerProfile(profile, playerUUID);
+            invalidatePlaceholders(playerUUID);
+            return;
+        }
+
+        int archivedGeneration = profile.getInt("season_generation", activeSeason.getGeneration());
+        int archivedXp = profile.getInt("battlepass_xp", 0);
+        List<Integer> archivedLevels = profile.getIntegerList("battlepass_claimed_levels");
+
+        // Generazione, XP e livelli vengono uniti nel compute sulla XP, come nel cambio di stagione.
+        playerBattlePassXp.compute(playerUUID, (uuid, hotXp) -> {
+            int hotGeneration = playerSeasonGenerations.getOrDefault(uuid, archivedGeneration);
+            if (archivedGeneration == hotGeneration) {
+                playerSeasonGenerations.put(uuid, archivedGeneration);
+                if (!archivedLevels.isEmpty()) {
+                    playerClaimedLevels.computeIfAbsent(uuid, key -> ConcurrentHashMap.newKeySet()).addAll(archivedLevels);
                 }
+                return (hotXp != null ? hotXp : 0) + archivedXp;
+            }
+            if (archivedGeneration < hotGeneration) {
+                // Il profilo archiviato appartiene a una stagione conclusa: va solo nello storico.
+                archiveSeasonResult(uuid, archivedGeneration, archivedXp, archivedLevels);
+                return hotXp;
+            }
+            // Caso limite: i dati attivi sono più vecchi di quelli archiviati.
+            archiveSeasonResult(uuid, hotGeneration, hotXp != null ? hotXp : 0,
+                    playerClaimedLevels.getOrDefault(uuid, Collections.emptySet()));
+            playerSeasonGenerations.put(uuid, archivedGeneration);
+            Set<Integer> levels = ConcurrentHashMap.newKeySet();
+            levels.addAll(archivedLevels);
+            playerClaimedLevels.put(uuid, levels);
+            return archivedXp;
+        });
+
+        String dateString = profile.getString("last_claim_date");
+        if (dateString != null) {
+            try {
+                LocalDate archivedClaimDate = LocalDate.parse(dateString);
+                lastClaimDates.merge(playerUUID, archivedClaimDate, (hot, archived) -> hot.isAfter(archived) ? hot : archived);
+            } catch (DateTimeParseException e) {
+                getLogger().log(Level.WARNING, "Formato data non valido per " + playerUUID + ". Ignorato. Errore: " + e.getMessage());
+            }
+        }
+        readMailbox(profile, playerUUID).forEach(item -> addToMailbox(playerUUID, item));
+        invalidatePlaceholders(playerUUID);
+    }
+
+    /**
+     * Scrive il profilo di un giocatore dalle mappe in memoria in una sezione di configurazione.
+     *
+     * @param profile La sezione in cui scrivere.
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void writePlayerProfile(ConfigurationSection profile, UUID playerUUID) {
+        LocalDate lastClaimDate = lastClaimDates.get(playerUUID);
+        if (lastClaimDate != null) {
+            profile.set("last_claim_date", lastClaimDate.toString());
+        }
+        LocalDate lastSeen = lastSeenDates.get(playerUUID);
+        if (lastSeen != null) {
+            profile.set("last_seen_date", lastSeen.toString());
+        }
 
-                // Carica l'XP del BattlePass.
-                int xp = dataConfig.getInt(path + ".battlepass_xp", 0);
-                playerBattlePassXp.put(playerUUID, xp);
+        // XP, livelli e generazione vengono letti nel compute sulla XP, lo stesso usato dal cambio di stagione,
+        // dalle assegnazioni di XP e dai riscatti: la copia non è mai presa a metà di uno di questi passi.
+        playerBattlePassXp.compute(playerUUID, (uuid, xp) -> {
+            if (xp != null) {
+                profile.set("battlepass_xp", xp);
+            }
 
-            } catch (IllegalArgumentException e) {
-                getLogger().log(Level.WARNING, "UUID non valido trovato in data.yml: " + uuidStr + ". Ignorato. Errore: " + e.getMessage());
+            // Salva i livelli riscattati, ordinati per leggibilità.
+            Set<Integer> claimedLevels = playerClaimedLevels.get(uuid);
+            if (claimedLevels != null && !claimedLevels.isEmpty()) {
+                profile.set("battlepass_claimed_levels", new ArrayList<>(new TreeSet<>(claimedLevels)));
             }
+
+            Integer generation = playerSeasonGenerations.get(uuid);
+            if (generation != null) {
+                profile.set("season_generation", generation);
+            }
+            return xp;
+        });
+
+        // Salva la cassetta delle ricompense in forma compatta (un item serializzato per riga).
+        List<ItemStack> mailbox = pendingRewardMailboxes.get(playerUUID);
+        if (mailbox != null && !mailbox.isEmpty()) {
+            profile.set("mailbox", mailbox.stream()
+                    .map(item -> Base64.getEncoder().encodeToString(item.serializeAsBytes()))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Restituisce tutti i giocatori presenti nei dati attivi (non archiviati).
+     */
+    private Set<UUID> getKnownPlayers() {
+        Set<UUID> knownPlayers = new LinkedHashSet<>(playerBattlePassXp.keySet());
+        knownPlayers.addAll(lastClaimDates.keySet());
+        knownPlayers.addAll(lastSeenDates.keySet());
+        knownPlayers.addAll(playerClaimedLevels.keySet());
+        knownPlayers.addAll(playerSeasonGenerations.keySet());
+        knownPlayers.addAll(pendingRewardMailboxes.keySet());
+        return knownPlayers;
+    }
+
+    /**
+     * Controlla se un giocatore ha un profilo nei dati attivi, senza costruire l'insieme di tutti i giocatori.
+     */
+    private boolean isKnownPlayer(UUID playerUUID) {
+        return playerBattlePassXp.containsKey(playerUUID) || lastClaimDates.containsKey(playerUUID)
+                || lastSeenDates.containsKey(playerUUID) || playerClaimedLevels.containsKey(playerUUID)
+                || playerSeasonGenerations.containsKey(playerUUID) || pendingRewardMailboxes.containsKey(playerUUID);
+    }
+
+    /**
+     * Svuota il profilo salvato di un giocatore, lasciando lo stato di sessione (riscatti in corso, segnaposto).
+     *
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void clearPlayerProfile(UUID playerUUID) {
+        lastClaimDates.remove(playerUUID);
+        lastSeenDates.remove(playerUUID);
+        playerBattlePassXp.remove(playerUUID);
+        playerClaimedLevels.remove(playerUUID);
+        playerSeasonGenerations.remove(playerUUID);
+        pendingRewardMailboxes.remove(playerUUID);
+    }
+
+    /**
+     * Rimuove un giocatore da tutti i dati attivi in memoria.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void forgetPlayerProfile(UUID playerUUID) {
+        clearPlayerProfile(playerUUID);
+        playerClaimStates.remove(playerUUID);
+        forgetPlaceholders(playerUUID);
+        markPlayerDirty(playerUUID);
+        playerDataStamps.remove(playerUUID);
+    }
+
+    /**
+     * Pianifica un salvataggio di `data.yml` sullo scheduler asincrono, così le regioni dei giocatori non
+     * aspettano l'I/O. Più richieste ravvicinate vengono accorpate in un'unica scrittura.
+     */
+    private void requestPlayerDataSave() {
+        if (playerDataSavePending.compareAndSet(false, true)) {
+            getServer().getAsyncScheduler().runNow(this, task -> {
+                // Azzerato prima della scrittura: una modifica durante il salvataggio ne pianifica un altro.
+                playerDataSavePending.set(false);
+                savePlayerDataToFile();
+            });
         }
-        getLogger().log(Level.INFO, "Caricati i dati di " + lastClaimDates.size() + " giocatori da data.yml.");
     }
 
     /**
-     * Salva i dati correnti dei giocatori (ultima data di riscatto e XP BattlePass) nel file `data.yml`.
+     * Salva i dati correnti dei giocatori (ultima data di riscatto e di accesso, XP BattlePass, livelli riscattati,
+     * generazione di stagione e cassetta delle ricompense) nel file `data.yml`.
+     * È sincronizzato perché `dataConfig` è condiviso tra il salvataggio asincrono e quello alla disabilitazione.
      */
-    private void savePlayerDataToFile() {
+    private synchronized void savePlayerDataToFile() {
         // Pulisce la sezione 'players' per evitare dati obsoleti.
         dataConfig.set("players", null);
 
-        // Salva le date di riscatto.
-        lastClaimDates.forEach((uuid, date) ->
-                dataConfig.set("players." + uuid.toString() + ".last_claim_date", date.toString()));
-
-        // Salva l'XP del BattlePass.
-        playerBattlePassXp.forEach((uuid, xp) ->
-                dataConfig.set("players." + uuid.toString() + ".battlepass_xp", xp));
+        for (UUID playerUUID : getKnownPlayers()) {
+            writePlayerProfile(dataConfig.createSection("players." + playerUUID), playerUUID);
+        }
 
         try {
             dataConfig.save(dataFile);
-            getLogger().log(Level.INFO, "Dati dei giocatori salvati in data.yml.");
+            getLogger().log(Level.FINE, "Dati dei giocatori salvati in data.yml.");
         } catch (IOException e) {
             getLogger().log(Level.SEVERE, "Impossibile salvare data.yml: " + e.getMessage());
         }
@@ -257,6 +754,13 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
      * ma in un plugin più complesso potrebbe essere caricata da un file di configurazione separato.
      */
     private void loadBattlePassConfig() {
+        // Numero livello -> Soglia XP
+        Map<Integer, Integer> battlePassLevelThresholds = new TreeMap<>();
+        // Numero livello -> Lista di ItemStack per le ricompense di quel livello
+        Map<Integer, List<ItemStack>> battlePassLevelRewards = new HashMap<>();
+        // Numero livello -> Lista di comandi da eseguire al raggiungimento del livello
+        Map<Integer, List<String>> battlePassLevelCommands = new HashMap<>();
+
         // Definizione delle soglie XP per ogni livello
         battlePassLevelThresholds.put(1, 0); // Livello 1 sbloccato all'inizio
         battlePassLevelThresholds.put(2, 100);
@@ -375,9 +879,276 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
             battlePassLevelCommands.put(i, itemCommands);
         }
 
+        // Conserva la tabella appena definita come stagione predefinita (generazione 0, senza scadenza).
+        defaultSeason = new BattlePassSeason(0, ChatColor.GOLD + "Stagione Base", null, null,
+                battlePassLevelThresholds, battlePassLevelRewards, battlePassLevelCommands);
+
         getLogger().log(Level.INFO, "Configurazione BattlePass caricata con " + battlePassLevelThresholds.size() + " livelli.");
     }
 
+    /**
+     * Carica le stagioni del BattlePass dal file `seasons.yml`.
+     * Ogni stagione è identificata dalla sua generazione (intero positivo crescente nel tempo), ha una data di inizio,
+     * una data di fine opzionale e una propria tabella di livelli. Se la tabella manca viene usata quella predefinita.
+     */
+    private void loadSeasonsFromFile() {
+        battlePassSeasons.clear();
+
+        if (!seasonsConfig.isConfigurationSection("seasons")) {
+            getLogger().log(Level.WARNING, "La sezione 'seasons' non è presente in seasons.yml. Verrà usata la stagione predefinita.");
+            return;
+        }
+
+        for (String seasonKey : Objects.requireNonNull(seasonsConfig.getConfigurationSection("seasons")).getKeys(false)) {
+            try {
+                int generation = Integer.parseInt(seasonKey);
+                if (generation <= 0) {
+                    throw new IllegalArgumentException("la generazione deve essere un intero positivo");
+                }
+                String path = "seasons." + seasonKey;
+
+                String displayName = ChatColor.translateAlternateColorCodes('&', seasonsConfig.getString(path + ".display_name", "&6Stagione " + generation));
+                LocalDate startDate = LocalDate.parse(Objects.requireNonNull(seasonsConfig.getString(path + ".start"), "data di inizio mancante"));
+                String endString = seasonsConfig.getString(path + ".end");
+                LocalDate endDate = endString != null ? LocalDate.parse(endString) : null;
+
+                Map<Integer, Integer> thresholds = new TreeMap<>();
+                Map<Integer, List<ItemStack>> rewards = new HashMap<>();
+                Map<Integer, List<String>> commands = new HashMap<>();
+
+                if (seasonsConfig.isConfigurationSection(path + ".tiers")) {
+                    for (String tierKey : Objects.requireNonNull(seasonsConfig.getConfigurationSection(path + ".tiers")).getKeys(false)) {
+                        int level = Integer.parseInt(tierKey);
+                        String tierPath = path + ".tiers." + tierKey;
+
+                        Material material = Material.matchMaterial(seasonsConfig.getString(tierPath + ".material", "STONE"));
+                        thresholds.put(level, seasonsConfig.getInt(tierPath + ".xp", 0));
+                        rewards.put(level, Collections.singletonList(createGuiItem(material != null ? material : Material.STONE,
+                                seasonsConfig.getString(tierPath + ".display_name", "&fLivello " + level),
+                                seasonsConfig.getStringList(tierPath + ".lore"))));
+                        commands.put(level, seasonsConfig.getStringList(tierPath + ".commands"));
+                    }
+                }
+
+                // Le soglie XP devono crescere con il livello, altrimenti livello e progressi non sono calcolabili.
+                int previousXp = -1;
+                for (Map.Entry<Integer, Integer> tier : thresholds.entrySet()) {
+                    if (tier.getKey() <= 0 || tier.getValue() <= previousXp) {
+                        throw new IllegalArgumentException("il livello " + tier.getKey() + " deve essere positivo e richiedere più XP del livello precedente");
+                    }
+                    previousXp = tier.getValue();
+                }
+
+                // Nessun livello definito: la stagione riusa la tabella predefinita.
+                if (thresholds.isEmpty()) {
+                    thresholds.putAll(defaultSeason.getLevelThresholds());
+                    rewards.putAll(defaultSeason.getLevelRewards());
+                    commands.putAll(defaultSeason.getLevelCommands());
+                }
+
+                battlePassSeasons.put(generation, new BattlePassSeason(generation, displayName, startDate, endDate, thresholds, rewards, commands));
+                getLogger().log(Level.INFO, "Caricata stagione " + generation + " (" + startDate + " - " + (endDate != null ? endDate : "senza scadenza") + ") con " + thresholds.size() + " livelli.");
+
+            } catch (Exception e) {
+                getLogger().log(Level.SEVERE, "Errore durante il caricamento della stagione '" + seasonKey + "' da seasons.yml: " + e.getMessage());
+            }
+        }
+        getLogger().log(Level.INFO, "Caricate " + battlePassSeasons.size() + " stagioni da seasons.yml.");
+    }
+
+    /**
+     * Seleziona la stagione attiva (l'ultima iniziata, in ordine di generazione).
+     * Il cambio di stagione costa O(1) rispetto al numero di giocatori: si pubblica solo il nuovo `activeSeason`
+     * e ogni giocatore viene azzerato in modo pigro al primo accesso tramite {@link #ensurePlayerSeason(UUID)}.
+     */
+    private void refreshActiveSeason() {
+        LocalDate today = LocalDate.now();
+        BattlePassSeason selectedSeason = defaultSeason;
+        for (BattlePassSeason season : battlePassSeasons.values()) {
+            if (season.hasStarted(today)) {
+                selectedSeason = season;
+            }
+        }
+
+        if (selectedSeason == activeSeason) {
+            return;
+        }
+
+        activeSeason = selectedSeason;
+        invalidateAllPlaceholders();
+        getLogger().log(Level.INFO, "Stagione BattlePass attiva: " + ChatColor.stripColor(selectedSeason.getDisplayName()) + " (generazione " + selectedSeason.getGeneration() + ").");
+    }
+
+    /**
+     * Porta i dati BattlePass di un giocatore nella stagione attiva.
+     * Se il giocatore appartiene a una generazione precedente, i suoi risultati finali vengono accodati
+     * allo storico e XP e livelli riscattati vengono azzerati. Va chiamato prima di leggere o modificare i dati BattlePass.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @return La stagione in cui è stato portato il giocatore, da usare per tutte le letture successive.
+     */
+    private BattlePassSeason ensurePlayerSeason(UUID playerUUID) {
+        BattlePassSeason season = activeSeason;
+        int generation = season.getGeneration();
+        Integer playerGeneration = playerSeasonGenerations.get(playerUUID);
+        if (playerGeneration != null && playerGeneration == generation) {
+            return season;
+        }
+
+        // Il passaggio di generazione avviene in un unico compute sulla XP del giocatore, lo stesso usato
+        // da grantBattlePassXp: lettura della XP finale, archiviazione e azzeramento sono un solo passo,
+        // quindi nessuna XP assegnata nel frattempo va persa. Se due regioni ci provano insieme, solo una archivia.
+        AtomicBoolean advanced = new AtomicBoolean();
+        AtomicBoolean reset = new AtomicBoolean();
+        playerBattlePassXp.compute(playerUUID, (uuid, xp) -> {
+            Integer previousGeneration = playerSeasonGenerations.get(uuid);
+            if (previousGeneration != null && previousGeneration == generation) {
+                return xp; // Già portato nella stagione da un'altra regione.
+            }
+            playerSeasonGenerations.put(uuid, generation);
+            advanced.set(true);
+            if (previousGeneration == null) {
+                return xp;
+            }
+            Set<Integer> claimedLevels = playerClaimedLevels.remove(uuid);
+            archiveSeasonResult(uuid, previousGeneration, xp != null ? xp : 0,
+                    claimedLevels != null ? claimedLevels : Collections.emptySet());
+            reset.set(true);
+            return 0;
+        });
+        if (!advanced.get()) {
+            return season;
+        }
+
+        if (reset.get()) {
+            invalidatePlaceholders(playerUUID);
+        }
+        markPlayerDirty(playerUUID);
+        return season;
+    }
+
+    /**
+     * Accoda i risultati finali di un giocatore per una stagione conclusa.
+     * Formato della riga: generazione,uuid,xp,livello,livelli riscattati separati da ';'.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @param generation La generazione della stagione conclusa.
+     */
+    private void archiveSeasonResult(UUID playerUUID, int generation) {
+        archiveSeasonResult(playerUUID, generation, playerBattlePassXp.getOrDefault(playerUUID, 0),
+                playerClaimedLevels.getOrDefault(playerUUID, Collections.emptySet()));
+    }
+
+    /**
+     * Accoda i risultati finali di una stagione conclusa a partire da valori già letti.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @param generation La generazione della stagione conclusa.
+     * @param xp La XP finale del giocatore in quella stagione.
+     * @param levels I livelli riscattati in quella stagione.
+     */
+    private void archiveSeasonResult(UUID playerUUID, int generation, int xp, Collection<Integer> levels) {
+        BattlePassSeason season = battlePassSeasons.getOrDefault(generation, defaultSeason);
+        String claimedLevels = levels.stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(";"));
+
+        pendingSeasonHistory.add(generation + "," + playerUUID + "," + xp + "," + season.calculateLevel(xp) + "," + claimedLevels);
+    }
+
+    /**
+     * Scrive su disco le righe dello storico stagioni in attesa.
+     * Ogni scrittura aggiunge un nuovo membro GZIP in coda al file: i membri concatenati formano
+     * un unico file leggibile con qualsiasi strumento gzip, senza riscrivere i dati precedenti.
+     * Può essere chiamato da un thread asincrono.
+     */
+    private synchronized void flushSeasonHistory() {
+        if (pendingSeasonHistory.isEmpty()) {
+            return;
+        }
+
+        StringBuilder batch = new StringBuilder();
+        int lines = 0;
+        String line;
+        while ((line = pendingSeasonHistory.poll()) != null) {
+            batch.append(line).append('\n');
+            lines++;
+        }
+
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(seasonHistoryFile, true)), StandardCharsets.UTF_8)) {
+            writer.write(batch.toString());
+            getLogger().log(Level.INFO, "Archiviati " + lines + " risultati di stagione in " + seasonHistoryFile.getName() + ".");
+        } catch (IOException e) {
+            getLogger().log(Level.SEVERE, "Impossibile scrivere " + seasonHistoryFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rappresenta una stagione del BattlePass con le sue date e la sua tabella dei livelli.
+     * Questa è una classe interna per rispettare il vincolo del singolo file Java.
+     */
+    private static class BattlePassSeason {
+        private final int generation;
+        private final String displayName;
+        private final LocalDate startDate; // null = sempre iniziata
+        private final LocalDate endDate; // null = senza scadenza
+        private final NavigableMap<Integer, Integer> levelThresholds;
+        private final Map<Integer, List<ItemStack>> levelRewards;
+        private final Map<Integer, List<String>> levelCommands;
+
+        public BattlePassSeason(int generation, String displayName, LocalDate startDate, LocalDate endDate,
+                                Map<Integer, Integer> levelThresholds, Map<Integer, List<ItemStack>> levelRewards,
+                                Map<Integer, List<String>> levelCommands) {
+            this.generation = generation;
+            this.displayName = displayName;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            // Copie immutabili: la stagione viene condivisa tra le regioni senza sincronizzazione.
+            this.levelThresholds = Collections.unmodifiableNavigableMap(new TreeMap<>(levelThresholds));
+            this.levelRewards = Collections.unmodifiableMap(new HashMap<>(levelRewards));
+            this.levelCommands = Collections.unmodifiableMap(new HashMap<>(levelCommands));
+        }
+
+        public int getGeneration() { return generation; }
+        public String getDisplayName() { return displayName; }
+        public LocalDate getEndDate() { return endDate; }
+        public NavigableMap<Integer, Integer> getLevelThresholds() { return levelThresholds; }
+        public Map<Integer, List<ItemStack>> getLevelRewards() { return levelRewards; }
+        public Map<Integer, List<String>> getLevelCommands() { return levelCommands; }
+
+        public boolean hasStarted(LocalDate today) { return startDate == null || !today.isBefore(startDate); }
+        public boolean hasEnded(LocalDate today) { return endDate != null && today.isAfter(endDate); }
+
+        /**
+         * Calcola il livello raggiunto con la XP indicata secondo la tabella di questa stagione.
+         */
+        public int calculateLevel(int xp) {
+            int level = 1;
+            for (Map.Entry<Integer, Integer> entry : levelThresholds.entrySet()) {
+                if (xp >= entry.getValue()) {
+                    level = Math.max(level, entry.getKey());
+                }
+            }
+            return level;
+        }
+
+        /**
+         * Restituisce la soglia XP del livello successivo, o quella del livello massimo se è già stato raggiunto.
+         */
+        public int getNextLevelThreshold(int currentLevel) {
+            if (levelThresholds.isEmpty()) {
+                return 0;
+            }
+            // I livelli non sono per forza consecutivi (es. 1, 5, 10): il successivo è la prima chiave più alta.
+            Map.Entry<Integer, Integer> nextLevel = levelThresholds.higherEntry(currentLevel);
+            if (nextLevel == null) {
+                return levelThresholds.lastEntry().getValue(); // Se al livello massimo, mostra la sua soglia.
+            }
+            return nextLevel.getValue();
+        }
+    }
+
     /**
      * Rappresenta una singola ricompensa configurabile.
      * Questa è una classe interna per rispettare il vincolo del singolo file Java.
@@ -407,38 +1178,287 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
         public int getXpReward() { return xpReward; }
     }
 
-    // --- Sezione Gestione GUI ---
+    // --- Sezione Messaggi ---
 
     /**
-     * Crea un ItemStack personalizzato per le GUI.
-     *
-     * @param material Il materiale dell'item.
-     * @param name Il nome visualizzato dell'item.
-     * @param lore La lista di stringhe per la lore dell'item.
-     * @return L'ItemStack creato.
+     * Carica tutti i cataloghi `messages_<locale>.yml` presenti nella cartella del plugin.
+     * Ogni messaggio viene compilato una sola volta in un {@link MessageTemplate};
+     * le chiavi mancanti di un catalogo vengono prese da quello predefinito.
      */
-    private ItemStack createGuiItem(final Material material, final String name, final List<String> lore) {
-        final ItemStack item = new ItemStack(material, 1); // Quantità 1 è standard per GUI display
-        final ItemMeta meta = item.getItemMeta();
-
-        if (meta != null) {
-            meta.setDisplayName(ChatColor.translateAlternateColorCodes('&', name));
-            meta.setLore(lore.stream().map(s -> ChatColor.translateAlternateColorCodes('&', s)).collect(Collectors.toList()));
-            item.setItemMeta(meta);
+    private void loadMessageCatalogs() {
+        messageCatalogs.clear();
+        playerMessageCatalogs.clear();
+
+        defaultMessageCatalog = loadMessageCatalog(new File(getDataFolder(), "messages_" + DEFAULT_MESSAGE_LOCALE + ".yml"), null);
+        messageCatalogs.put(DEFAULT_MESSAGE_LOCALE, defaultMessageCatalog);
+
+        File[] files = getDataFolder().listFiles((dir, name) -> name.startsWith("messages_") && name.endsWith(".yml"));
+        if (files != null) {
+            for (File file : files) {
+                String locale = file.getName().substring("messages_".length(), file.getName().length() - ".yml".length()).toLowerCase(Locale.ROOT);
+                if (!locale.equals(DEFAULT_MESSAGE_LOCALE)) {
+                    messageCatalogs.put(locale, loadMessageCatalog(file, defaultMessageCatalog));
+                }
+            }
         }
-        return item;
+        getLogger().log(Level.INFO, "Caricati i messaggi per le lingue: " + String.join(", ", messageCatalogs.keySet()) + ".");
     }
 
     /**
-     * Apre la GUI delle ricompense giornaliere per un giocatore.
-     * La GUI è un inventario personalizzato che mostra un placeholder per la ricompensa.
+     * Carica e compila un singolo catalogo di messaggi.
      *
-     * @param player Il giocatore a cui aprire la GUI.
+     * @param file Il file messages_<locale>.yml.
+     * @param fallback Il catalogo da usare per le chiavi mancanti, o null per quello predefinito.
+     * @return Il catalogo compilato.
      */
-    private void openDailyRewardGUI(Player player) {
-        // La GUI ha una dimensione fissa di 9 slot (una riga).
-        final Inventory gui = Bukkit.createInventory(null, 9, claimGUITitle);
-
+    private MessageCatalog loadMessageCatalog(File file, MessageCatalog fallback) {
+        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
+        Map<String, MessageTemplate> templates = new HashMap<>();
+
+        if (config.isConfigurationSection("messages")) {
+            // Il prefisso è costante, quindi viene inserito nei testi prima della compilazione.
+            String defaultPrefix = fallback != null ? fallback.getPrefix() : prefix;
+            String catalogPrefix = ChatColor.translateAlternateColorCodes('&', config.getString("messages.prefix", defaultPrefix));
+
+            for (String key : Objects.requireNonNull(config.getConfigurationSection("messages")).getKeys(false)) {
+                String text = ChatColor.translateAlternateColorCodes('&', config.getString("messages." + key, key));
+                templates.put(key, MessageTemplate.compile(text.replace("%prefix%", catalogPrefix)));
+            }
+        } else {
+            getLogger().log(Level.WARNING, "La sezione 'messages' non è presente in " + file.getName() + ".");
+        }
+        return new MessageCatalog(Collections.unmodifiableMap(templates), fallback);
+    }
+
+    /**
+     * Sceglie il catalogo per una lingua del client (es. "en_US"): prima la lingua completa,
+     * poi solo la lingua, infine il catalogo predefinito.
+     */
+    private MessageCatalog resolveMessageCatalog(String locale) {
+        String normalized = locale.toLowerCase(Locale.ROOT);
+        MessageCatalog catalog = messageCatalogs.get(normalized);
+        int separator = normalized.indexOf('_');
+        if (catalog == null && separator > 0) {
+            catalog = messageCatalogs.get(normalized.substring(0, separator));
+        }
+        return catalog != null ? catalog : defaultMessageCatalog;
+    }
+
+    private MessageCatalog catalogFor(CommandSender target) {
+        if (!(target instanceof Player)) {
+            return defaultMessageCatalog;
+        }
+        Player player = (Player) target;
+        return playerMessageCatalogs.computeIfAbsent(player.getUniqueId(), uuid -> resolveMessageCatalog(player.locale().toString()));
+    }
+
+    /**
+     * Restituisce un messaggio nella lingua del destinatario.
+     *
+     * @param target Il destinatario (giocatore o console).
+     * @param key La chiave del messaggio.
+     * @param placeholders Coppie nome/valore dei placeholder, senza i simboli %.
+     * @return Il messaggio formattato.
+     */
+    private String message(CommandSender target, String key, String... placeholders) {
+        return catalogFor(target).get(key).render(placeholders);
+    }
+
+    /**
+     * Restituisce un messaggio su più righe (separate da \n nel file), come la descrizione di un item della GUI.
+     *
+     * @param target Il destinatario (giocatore o console).
+     * @param key La chiave del messaggio.
+     * @param placeholders Coppie nome/valore dei placeholder, senza i simboli %.
+     * @return Le righe del messaggio formattato.
+     */
+    private List<String> messageLines(CommandSender target, String key, String... placeholders) {
+        return Arrays.asList(message(target, key, placeholders).split("\n"));
+    }
+
+    /**
+     * Invia un messaggio nella lingua del destinatario. I messaggi senza placeholder
+     * vengono inviati come componenti Adventure già costruiti.
+     *
+     * @param target Il destinatario (giocatore o console).
+     * @param key La chiave del messaggio.
+     * @param placeholders Coppie nome/valore dei placeholder, senza i simboli %.
+     */
+    private void sendMessage(CommandSender target, String key, String... placeholders) {
+        MessageTemplate template = catalogFor(target).get(key);
+        if (template.getComponent() != null) {
+            target.sendMessage(template.getComponent());
+        } else {
+            target.sendMessage(template.render(placeholders));
+        }
+    }
+
+    /**
+     * Catalogo dei messaggi di una lingua.
+     * Questa è una classe interna per rispettare il vincolo del singolo file Java.
+     */
+    private static class MessageCatalog {
+        private final Map<String, MessageTemplate> templates;
+        private final MessageCatalog fallback;
+
+        public MessageCatalog(Map<String, MessageTemplate> templates, MessageCatalog fallback) {
+            this.templates = templates;
+            this.fallback = fallback;
+        }
+
+        public String getPrefix() {
+            MessageTemplate template = templates.get("prefix");
+            return template != null ? template.render() : (fallback != null ? fallback.getPrefix() : "");
+        }
+
+        /**
+         * Restituisce il template della chiave, cercandolo nel catalogo predefinito se manca.
+         * Una chiave sconosciuta viene compilata come testo, così l'errore resta visibile. Non viene memorizzata:
+         * la mappa dei template è letta da più regioni e non viene mai modificata dopo il caricamento.
+         */
+        public MessageTemplate get(String key) {
+            MessageTemplate template = templates.get(key);
+            if (template == null && fallback != null) {
+                template = fallback.get(key);
+            }
+            return template != null ? template : MessageTemplate.compile(key);
+        }
+    }
+
+    /**
+     * Messaggio compilato in segmenti di testo e placeholder (%nome%).
+     * La compilazione avviene una volta al caricamento; il rendering è un solo passaggio sui segmenti
+     * in uno StringBuilder riusato per thread. I messaggi senza placeholder tengono anche il componente Adventure.
+     * Questa è una classe interna per rispettare il vincolo del singolo file Java.
+     */
+    private static class MessageTemplate {
+        private static final ThreadLocal<StringBuilder> RENDER_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+        // literals.length == placeholders.length + 1: testo, placeholder, testo, ..., testo
+        private final String[] literals;
+        private final String[] placeholders;
+        private final Component component;
+
+        private MessageTemplate(String[] literals, String[] placeholders) {
+            this.literals = literals;
+            this.placeholders = placeholders;
+            this.component = placeholders.length == 0 ? LegacyComponentSerializer.legacySection().deserialize(literals[0]) : null;
+        }
+
+        /**
+         * Divide il testo in segmenti. Un nome di placeholder valido contiene solo lettere, cifre e '_';
+         * ogni altro '%' resta testo normale.
+         */
+        public static MessageTemplate compile(String text) {
+            List<String> literals = new ArrayList<>();
+            List<String> placeholders = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                int end = c == '%' ? text.indexOf('%', i + 1) : -1;
+                if (end > i + 1 && isPlaceholderName(text, i + 1, end)) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    placeholders.add(text.substring(i + 1, end));
+                    i = end + 1;
+                } else {
+                    literal.append(c);
+                    i++;
+                }
+            }
+            literals.add(literal.toString());
+            return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+        }
+
+        private static boolean isPlaceholderName(String text, int from, int to) {
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                if (!Character.isLetterOrDigit(c) && c != '_') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public Component getComponent() { return component; }
+
+        /**
+         * Compone il messaggio.
+         *
+         * @param values Coppie nome/valore; i placeholder senza valore restano invariati.
+         */
+        public String render(String... values) {
+            if (placeholders.length == 0) {
+                return literals[0];
+            }
+            StringBuilder buffer = RENDER_BUFFER.get();
+            buffer.setLength(0);
+            for (int i = 0; i < placeholders.length; i++) {
+                buffer.append(literals[i]);
+                String value = lookup(placeholders[i], values);
+                if (value != null) {
+                    buffer.append(value);
+                } else {
+                    buffer.append('%').append(placeholders[i]).append('%');
+                }
+            }
+            buffer.append(literals[placeholders.length]);
+            return buffer.toString();
+        }
+
+        private static String lookup(String name, String[] values) {
+            for (int i = 0; i + 1 < values.length; i += 2) {
+                if (values[i].equals(name)) {
+                    return values[i + 1];
+                }
+            }
+            return null;
+        }
+    }
+
+    // --- Sezione Gestione GUI ---
+
+    // Slot della scheda cassetta nella GUI giornaliera e layout della GUI della cassetta.
+    private static final int MAILBOX_BUTTON_SLOT = 8;
+    private static final int MAILBOX_ITEM_SLOTS = 45;
+    private static final int MAILBOX_COLLECT_ALL_SLOT = 49;
+
+    // Slot fissi della GUI BattlePass (dispari, quindi mai occupati dai livelli).
+    private static final int BATTLEPASS_PROGRESS_SLOT = 49;
+    private static final int BATTLEPASS_CLAIM_ALL_SLOT = 51;
+
+    /**
+     * Crea un ItemStack personalizzato per le GUI.
+     *
+     * @param material Il materiale dell'item.
+     * @param name Il nome visualizzato dell'item.
+     * @param lore La lista di stringhe per la lore dell'item.
+     * @return L'ItemStack creato.
+     */
+    private ItemStack createGuiItem(final Material material, final String name, final List<String> lore) {
+        final ItemStack item = new ItemStack(material, 1); // Quantità 1 è standard per GUI display
+        final ItemMeta meta = item.getItemMeta();
+
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.translateAlternateColorCodes('&', name));
+            meta.setLore(lore.stream().map(s -> ChatColor.translateAlternateColorCodes('&', s)).collect(Collectors.toList()));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    /**
+     * Apre la GUI delle ricompense giornaliere per un giocatore.
+     * La GUI è un inventario personalizzato che mostra un placeholder per la ricompensa.
+     *
+     * @param player Il giocatore a cui aprire la GUI.
+     */
+    private void openDailyRewardGUI(Player player) {
+        // La GUI ha una dimensione fissa di 9 slot (una riga).
+        final Inventory gui = Bukkit.createInventory(null, 9, message(player, "claim-gui-title"));
+
         // Prepara l'item da visualizzare nella GUI.
         ItemStack rewardDisplayItem;
         List<String> lore = new ArrayList<>();
@@ -446,20 +1466,47 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
 
         // Controlla se il giocatore ha già riscattato la ricompensa oggi.
         if (hasPlayerClaimedToday(player.getUniqueId())) {
-            rewardDisplayItem = createGuiItem(Material.RED_WOOL, ChatColor.RED + "Già Riscattato Oggi",
-                    Arrays.asList(ChatColor.GRAY + "Hai già ottenuto la tua ricompensa", ChatColor.GRAY + "giornaliera. Riprova domani!"));
+            rewardDisplayItem = createGuiItem(Material.RED_WOOL, message(player, "claim-gui-claimed-name"),
+                    messageLines(player, "claim-gui-claimed-lore"));
         } else {
-            rewardDisplayItem = createGuiItem(Material.LIME_WOOL, ChatColor.GREEN + "Clicca per Riscattare",
-                    Arrays.asList(ChatColor.GRAY + "Clicca qui per riscattare la tua", ChatColor.GRAY + "ricompensa giornaliera!"));
+            rewardDisplayItem = createGuiItem(Material.LIME_WOOL, message(player, "claim-gui-unclaimed-name"),
+                    messageLines(player, "claim-gui-unclaimed-lore"));
         }
 
         // Posiziona l'item al centro della GUI (slot 4).
         gui.setItem(4, rewardDisplayItem);
 
+        // Scheda della cassetta delle ricompense non consegnate (ultimo slot).
+        int pendingCount = pendingRewardMailboxes.getOrDefault(player.getUniqueId(), Collections.emptyList()).size();
+        gui.setItem(MAILBOX_BUTTON_SLOT, createGuiItem(Material.CHEST, message(player, "mailbox-button-name"),
+                messageLines(player, "mailbox-button-lore", "count", String.valueOf(pendingCount))));
+
         // Memorizza l'inventario aperto per il giocatore.
         openClaimGUIs.put(player.getUniqueId(), gui);
         player.openInventory(gui);
-        getLogger().log(Level.INFO, "Aperta Daily Reward GUI per " + player.getName());
+        getLogger().log(Level.FINE, () -> "Aperta Daily Reward GUI per " + player.getName());
+    }
+
+    /**
+     * Apre la GUI della cassetta delle ricompense per un giocatore.
+     * Mostra gli item non consegnati: cliccandone uno si prova a consegnarlo, il pulsante in basso li ritira tutti.
+     *
+     * @param player Il giocatore a cui aprire la GUI.
+     */
+    private void openMailboxGUI(Player player) {
+        // La GUI ha una dimensione di 54 slot: 45 per gli item in attesa e l'ultima riga per i controlli.
+        final Inventory gui = Bukkit.createInventory(null, 54, message(player, "mailbox-gui-title"));
+        List<ItemStack> mailbox = pendingRewardMailboxes.getOrDefault(player.getUniqueId(), Collections.emptyList());
+
+        for (int i = 0; i < mailbox.size() && i < MAILBOX_ITEM_SLOTS; i++) {
+            gui.setItem(i, mailbox.get(i).clone());
+        }
+
+        gui.setItem(MAILBOX_COLLECT_ALL_SLOT, createGuiItem(Material.HOPPER, message(player, "mailbox-collect-all-name"),
+                messageLines(player, "mailbox-collect-all-lore", "count", String.valueOf(mailbox.size()))));
+
+        openMailboxGUIs.put(player.getUniqueId(), gui);
+        player.openInventory(gui);
     }
 
     /**
@@ -470,17 +1517,18 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
      */
     private void openBattlePassGUI(Player player) {
         // La GUI ha una dimensione di 54 slot (6 righe).
-        final Inventory gui = Bukkit.createInventory(null, 54, battlePassGUITitle);
+        final Inventory gui = Bukkit.createInventory(null, 54, message(player, "battlepass-gui-title"));
         UUID playerUUID = player.getUniqueId();
+        BattlePassSeason season = ensurePlayerSeason(playerUUID);
+        NavigableMap<Integer, Integer> levelThresholds = season.getLevelThresholds();
         int playerCurrentXP = playerBattlePassXp.getOrDefault(playerUUID, 0);
-        int playerCurrentLevel = calculateBattlePassLevel(playerCurrentXP);
+        int playerCurrentLevel = season.calculateLevel(playerCurrentXP);
 
         // Calcola il livello massimo definito.
-        Optional<Integer> maxLevelOptional = battlePassLevelThresholds.keySet().stream().max(Comparator.naturalOrder());
-        int maxLevel = maxLevelOptional.orElse(1); // Default a 1 se non ci sono livelli definiti.
+        int maxLevel = levelThresholds.isEmpty() ? 1 : levelThresholds.lastKey(); // Default a 1 se non ci sono livelli definiti.
 
         // Crea gli item per ogni livello del BattlePass.
-        for (Map.Entry<Integer, Integer> entry : battlePassLevelThresholds.entrySet()) {
+        for (Map.Entry<Integer, Integer> entry : levelThresholds.entrySet()) {
             int level = entry.getKey();
             int requiredXP = entry.getValue();
 
@@ -494,8 +1542,8 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
             Material displayMaterial;
             String displayName;
             List<String> lore = new ArrayList<>();
-            lore.add(ChatColor.GRAY + "Livello Richiesto: " + level);
-            lore.add(ChatColor.GRAY + "XP Richiesta: " + requiredXP);
+            lore.add(message(player, "battlepass-lore-required-level", "level", String.valueOf(level)));
+            lore.add(message(player, "battlepass-lore-required-xp", "xp", String.valueOf(requiredXP)));
 
             if (isLevelReached) {
                 // Controlla se il giocatore ha già riscattato la ricompensa per questo livello.
@@ -504,41 +1552,42 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
                 // Aggiungeremo una logica per memorizzare i livelli riscattati per singolo giocatore.
                 if (hasBattlePassRewardClaimed(playerUUID, level)) {
                     displayMaterial = Material.GRAY_STAINED_GLASS_PANE; // Già riscattato
-                    displayName = battlePassClaimedRewardMessage;
-                    lore.add(ChatColor.DARK_GRAY + "Hai già ottenuto questa ricompensa.");
+                    displayName = message(player, "battlepass-claimed-reward");
+                    lore.add(message(player, "battlepass-lore-claimed"));
                 } else {
                     displayMaterial = Material.LIGHT_BLUE_STAINED_GLASS_PANE; // Clicca per riscattare
-                    displayName = ChatColor.GREEN + battlePassUnclaimedRewardMessage;
-                    lore.add(ChatColor.GREEN + "Clicca per ottenere la ricompensa!");
+                    displayName = message(player, "battlepass-unclaimed-reward");
+                    lore.add(message(player, "battlepass-lore-unclaimed"));
                 }
 
                 // Aggiunge la descrizione della ricompensa effettiva.
-                if (battlePassLevelRewards.containsKey(level) && !battlePassLevelRewards.get(level).isEmpty()) {
-                    ItemStack rewardItem = battlePassLevelRewards.get(level).get(0);
-                    lore.add(ChatColor.GRAY + "Ricompensa: " + ChatColor.RESET + rewardItem.getItemMeta().getDisplayName());
+                List<ItemStack> levelRewards = season.getLevelRewards().get(level);
+                if (levelRewards != null && !levelRewards.isEmpty()) {
+                    ItemStack rewardItem = levelRewards.get(0);
+                    lore.add(message(player, "battlepass-lore-reward", "reward", rewardItem.getItemMeta().getDisplayName()));
                 }
 
             } else {
                 displayMaterial = Material.RED_STAINED_GLASS_PANE; // Livello non raggiunto
-                displayName = ChatColor.RED + battlePassLockedRewardMessage;
-                lore.add(ChatColor.RED + "Hai bisogno di più XP per sbloccare!");
+                displayName = message(player, "battlepass-locked-reward");
+                lore.add(message(player, "battlepass-lore-locked"));
             }
 
             // Aggiungi XP attuale e XP per il prossimo livello (se non è l'ultimo)
             lore.add(""); // Spaziatore
-            lore.add(ChatColor.BLUE + "La tua XP: " + playerCurrentXP);
+            lore.add(message(player, "battlepass-lore-current-xp", "xp", String.valueOf(playerCurrentXP)));
             if (level < maxLevel) {
                 // Trova il prossimo livello più alto e la sua soglia.
-                int nextLevel = battlePassLevelThresholds.keySet().stream()
+                int nextLevel = levelThresholds.keySet().stream()
                         .filter(l -> l > level)
                         .min(Comparator.naturalOrder())
                         .orElse(maxLevel + 1); // Se non c'è un livello superiore, considera maxLevel+1
 
-                int nextLevelXP = battlePassLevelThresholds.getOrDefault(nextLevel, requiredXP); // Fallback a requiredXP
+                int nextLevelXP = levelThresholds.getOrDefault(nextLevel, requiredXP); // Fallback a requiredXP
 
                 if (nextLevelXP > playerCurrentXP) {
-                    lore.add(ChatColor.BLUE + "Prossimo livello (" + nextLevel + "): " + nextLevelXP + " XP");
-                    lore.add(ChatColor.BLUE + "Mancano: " + (nextLevelXP - playerCurrentXP) + " XP");
+                    lore.add(message(player, "battlepass-lore-next-level", "level", String.valueOf(nextLevel), "xp", String.valueOf(nextLevelXP)));
+                    lore.add(message(player, "battlepass-lore-missing-xp", "xp", String.valueOf(nextLevelXP - playerCurrentXP)));
                 }
             }
 
@@ -555,40 +1604,184 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
         }
 
         // Mostra i progressi generali del giocatore in una sezione della GUI.
-        ItemStack playerProgressItem = createGuiItem(Material.CLOCK, ChatColor.YELLOW + "Il tuo Progresso BattlePass",
-                Arrays.asList(
-                        ChatColor.GRAY + "--------------------",
-                        battlePassLevelDisplayFormat.replace("%level%", String.valueOf(playerCurrentLevel)),
-                        battlePassXPDisplayFormat.replace("%current_xp%", String.valueOf(playerCurrentXP))
-                                .replace("%next_level_xp%", String.valueOf(getNextLevelXPThreshold(playerCurrentLevel))),
-                        ChatColor.GRAY + "--------------------"
-                ));
-        gui.setItem(49, playerProgressItem); // Posizione fissa per i progressi (es. in basso al centro)
+        List<String> progressLore = new ArrayList<>(Arrays.asList(
+                ChatColor.GRAY + "--------------------",
+                message(player, "battlepass-season-display", "season", season.getDisplayName()),
+                message(player, "battlepass-level-display", "level", String.valueOf(playerCurrentLevel)),
+                message(player, "battlepass-xp-display", "current_xp", String.valueOf(playerCurrentXP),
+                        "next_level_xp", String.valueOf(season.getNextLevelThreshold(playerCurrentLevel)))
+        ));
+        if (season.getEndDate() != null) {
+            progressLore.add(message(player, "battlepass-season-end-display", "end_date", season.getEndDate().toString()));
+        }
+        progressLore.add(ChatColor.GRAY + "--------------------");
+        ItemStack playerProgressItem = createGuiItem(Material.CLOCK, message(player, "battlepass-progress-name"), progressLore);
+        gui.setItem(BATTLEPASS_PROGRESS_SLOT, playerProgressItem); // Posizione fissa per i progressi (es. in basso al centro)
 
+        // Pulsante per riscattare in un colpo solo tutti i livelli raggiunti.
+        int claimableCount = getClaimableBattlePassLevels(playerUUID, season).size();
+        gui.setItem(BATTLEPASS_CLAIM_ALL_SLOT, createGuiItem(Material.NETHER_STAR, message(player, "battlepass-claim-all-name"),
+                messageLines(player, "battlepass-claim-all-lore", "count", String.valueOf(claimableCount))));
 
         openBattlePassGUIs.put(playerUUID, gui);
         player.openInventory(gui);
-        getLogger().log(Level.INFO, "Aperta BattlePass GUI per " + player.getName());
+        getLogger().log(Level.FINE, () -> "Aperta BattlePass GUI per " + player.getName());
+    }
+
+    // --- Sezione Placeholder ---
+
+    /**
+     * Fornisce i valori dei placeholder del plugin a scoreboard, tab list e altri plugin.
+     * È registrato nel ServicesManager di Bukkit; ogni lettura è un accesso a valori già formattati.
+     * Placeholder disponibili: level, xp, next_level_xp, xp_to_next, progress, claimable, daily_claimed, season.
+     */
+    public interface PlaceholderProvider {
+        /**
+         * @param playerUUID L'UUID del giocatore.
+         * @param placeholder Il nome del placeholder, senza prefisso.
+         * @return Il valore formattato, o null se il placeholder non esiste o non è ancora disponibile.
+         */
+        String getPlaceholder(UUID playerUUID, String placeholder);
+    }
+
+    /**
+     * Restituisce il provider dei placeholder del plugin.
+     */
+    public PlaceholderProvider getPlaceholderProvider() {
+        return placeholderProvider;
+    }
+
+    /**
+     * Legge un placeholder dalla cache. Se manca, i valori vengono calcolati sul thread chiamante:
+     * il calcolo legge solo dati thread-safe e non modifica i dati dei giocatori, quindi vale anche
+     * per le letture asincrone di scoreboard e tab list.
+     */
+    private String getCachedPlaceholder(UUID playerUUID, String placeholder) {
+        Map<String, String> values = placeholderCache.get(playerUUID);
+        if (values == null) {
+            if (!playerBattlePassXp.containsKey(playerUUID)) {
+                return null; // Giocatore sconosciuto al plugin.
+            }
+            values = refreshPlaceholders(playerUUID);
+        }
+        return values.get(placeholder.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Calcola tutti i valori formattati dei placeholder di un giocatore e li memorizza nella cache,
+     * a meno che i dati del giocatore non siano stati invalidati durante il calcolo.
+     */
+    private Map<String, String> refreshPlaceholders(UUID playerUUID) {
+        AtomicLong version = placeholderVersions.computeIfAbsent(playerUUID, uuid -> new AtomicLong());
+        long expectedVersion = version.get();
+        long expectedEpoch = placeholderEpoch.get();
+
+        // Nessun passaggio di stagione qui: un giocatore fermo a una stagione precedente
+        // viene mostrato come sarà dopo l'azzeramento, che avviene al suo prossimo accesso.
+        BattlePassSeason season = activeSeason;
+        boolean currentSeason = playerSeasonGenerations.getOrDefault(playerUUID, season.getGeneration()) == season.getGeneration();
+        int xp = currentSeason ? playerBattlePassXp.getOrDefault(playerUUID, 0) : 0;
+        Set<Integer> claimedLevels = currentSeason ? playerClaimedLevels.getOrDefault(playerUUID, Collections.emptySet()) : Collections.emptySet();
+        List<Integer> claimableLevels = getClaimableBattlePassLevels(season, xp, claimedLevels);
+        int level = season.calculateLevel(xp);
+        int levelXP = season.getLevelThresholds().getOrDefault(level, 0);
+        int nextLevelXP = season.getNextLevelThreshold(level);
+        int progress = nextLevelXP > levelXP ? Math.max(0, Math.min(100, (xp - levelXP) * 100 / (nextLevelXP - levelXP))) : 100;
+
+        Map<String, String> values = new HashMap<>();
+        values.put("level", String.valueOf(level));
+        values.put("xp", String.valueOf(xp));
+        values.put("next_level_xp", String.valueOf(nextLevelXP));
+        values.put("xp_to_next", String.valueOf(Math.max(0, nextLevelXP - xp)));
+        values.put("progress", progress + "%");
+        values.put("claimable", String.valueOf(claimableLevels.size()));
+        // I placeholder non hanno un destinatario: si usa la lingua del giocatore se è online.
+        values.put("daily_claimed", message(Bukkit.getPlayer(playerUUID), hasPlayerClaimedToday(playerUUID) ? "placeholder-yes" : "placeholder-no"));
+        values.put("season", season.getDisplayName());
+
+        Map<String, String> snapshot = Collections.unmodifiableMap(values);
+        // Un'invalidazione avvenuta durante il calcolo rende obsoleti questi valori: non vanno memorizzati.
+        placeholderCache.compute(playerUUID, (uuid, cached) ->
+                version.get() == expectedVersion && placeholderEpoch.get() == expectedEpoch ? snapshot : cached);
+        return snapshot;
+    }
+
+    /**
+     * Invalida i placeholder di un giocatore; verranno ricalcolati alla prossima lettura.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void invalidatePlaceholders(UUID playerUUID) {
+        // Il contatore esiste solo se un ricalcolo è stato avviato: senza contatore non c'è nulla da scartare,
+        // e i giocatori offline toccati da un'operazione in blocco non aggiungono voci alla mappa.
+        placeholderVersions.computeIfPresent(playerUUID, (uuid, version) -> {
+            version.incrementAndGet();
+            return version;
+        });
+        placeholderCache.remove(playerUUID);
     }
 
     /**
-     * Ottiene la soglia XP per il livello successivo.
+     * Invalida i placeholder di un giocatore e ne rimuove il contatore, ad esempio quando esce dal server.
+     * Un ricalcolo ancora in corso vede il contatore incrementato e non memorizza il risultato.
      *
-     * @param currentLevel Il livello attuale del giocatore.
-     * @return La XP richiesta per il prossimo livello, o la XP del livello attuale se è il massimo.
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void forgetPlaceholders(UUID playerUUID) {
+        invalidatePlaceholders(playerUUID);
+        placeholderVersions.remove(playerUUID);
+    }
+
+    /**
+     * Invalida i placeholder di tutti i giocatori, ad esempio al cambio di giorno o di stagione.
+     */
+    private void invalidateAllPlaceholders() {
+        placeholderEpoch.incrementAndGet();
+        placeholderCache.clear();
+    }
+
+    /**
+     * Espansione PlaceholderAPI: %dailyrewardspro_<placeholder>%.
+     * Viene caricata solo se PlaceholderAPI è presente sul server.
      */
-    private int getNextLevelXPThreshold(int currentLevel) {
-        int maxLevel = battlePassLevelThresholds.keySet().stream().max(Comparator.naturalOrder()).orElse(1);
-        if (currentLevel >= maxLevel) {
-            return battlePassLevelThresholds.get(maxLevel); // Se al livello massimo, mostra la sua soglia.
+    private static class DailyRewardsExpansion extends PlaceholderExpansion {
+        private final DailyRewardsPro plugin;
+
+        public DailyRewardsExpansion(DailyRewardsPro plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public String getIdentifier() { return "dailyrewardspro"; }
+
+        @Override
+        public String getAuthor() { return String.join(", ", plugin.getDescription().getAuthors()); }
+
+        @Override
+        public String getVersion() { return plugin.getDescription().getVersion(); }
+
+        @Override
+        public boolean persist() { return true; }
+
+        @Override
+        public String onRequest(OfflinePlayer player, String params) {
+            if (player == null) {
+                return "";
+            }
+            String value = plugin.getPlaceholderProvider().getPlaceholder(player.getUniqueId(), params);
+            return value != null ? value : "";
         }
-        return battlePassLevelThresholds.getOrDefault(currentLevel + 1, 0);
     }
 
     // --- Sezione Gestione Comandi ---
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // I comandi amministrativi sono disponibili anche dalla console.
+        if (command.getName().equalsIgnoreCase("drp")) {
+            return handleAdminCommand(sender, args);
+        }
+
         if (!(sender instanceof Player)) {
             sender.sendMessage(prefix + ChatColor.RED + "Solo i giocatori possono usare questo comando.");
             return true;
@@ -598,90 +1791,780 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
 
         if (command.getName().equalsIgnoreCase("claim")) {
             if (!player.hasPermission("dailyrewardspro.claim")) {
-                player.sendMessage(noPermissionMessage);
+                sendMessage(player, "no-permission");
                 return true;
             }
-            openDailyRewardGUI(player);
+            runForPlayer(player, () -> openDailyRewardGUI(player));
             return true;
         }
 
         if (command.getName().equalsIgnoreCase("battlepass")) {
             if (!player.hasPermission("dailyrewardspro.battlepass")) {
-                player.sendMessage(noPermissionMessage);
+                sendMessage(player, "no-permission");
                 return true;
             }
-            openBattlePassGUI(player);
+            runForPlayer(player, () -> openBattlePassGUI(player));
             return true;
         }
 
         return false;
     }
 
-    // --- Sezione Gestione Eventi ---
+    /**
+     * Gestisce i sottocomandi amministrativi di `/drp`.
+     *
+     * @param sender Chi ha eseguito il comando.
+     * @param args Gli argomenti del comando.
+     * @return true se il comando è stato gestito, false per mostrare l'uso.
+     */
+    private boolean handleAdminCommand(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("dailyrewardspro.admin")) {
+            sendMessage(sender, "no-permission");
+            return true;
+        }
+        if (args.length == 0) {
+            return false;
+        }
 
-    @EventHandler
-    public void onPlayerJoin(PlayerJoinEvent event) {
-        Player player = event.getPlayer();
-        UUID playerUUID = player.getUniqueId();
+        if (args[0].equalsIgnoreCase("audit")) {
+            // /drp audit <giocatore> [da] [a]
+            if (args.length < 2) {
+                sender.sendMessage(prefix + ChatColor.RED + "Uso: /drp audit <giocatore|uuid> [da YYYY-MM-DD] [a YYYY-MM-DD]");
+                return true;
+            }
+            UUID targetUUID = resolvePlayerUUID(args[1]);
+            if (targetUUID == null) {
+                sender.sendMessage(prefix + ChatColor.RED + "Giocatore non trovato: " + args[1]);
+                return true;
+            }
+            LocalDate from;
+            LocalDate to;
+            try {
+                from = args.length >= 3 ? LocalDate.parse(args[2]) : LocalDate.now().minusDays(6);
+                to = args.length >= 4 ? LocalDate.parse(args[3]) : LocalDate.now();
+            } catch (DateTimeParseException e) {
+                sender.sendMessage(prefix + ChatColor.RED + "Data non valida, usa il formato YYYY-MM-DD.");
+                return true;
+            }
+            queryAuditLog(sender, args[1], targetUUID, from, to);
+            return true;
+        }
 
-        // Inizializza l'XP del BattlePass per i nuovi giocatori o carica quelli esistenti.
-        if (!playerBattlePassXp.containsKey(playerUUID)) {
-            playerBattlePassXp.put(playerUUID, dataConfig.getInt("players." + playerUUID.toString() + ".battlepass_xp", 0));
+        switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "xp": {
+                // /drp xp <bersaglio> <quantità>
+                if (args.length < 3) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Uso: /drp xp <giocatore|@online|@all> <quantità> (@all esclude i giocatori archiviati)");
+                    return true;
+                }
+                int amount;
+                try {
+                    amount = Integer.parseInt(args[2]);
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Quantità non valida: " + args[2]);
+                    return true;
+                }
+                withAdminTargets(sender, args[1], targets -> startAdminJob(sender, "xp " + amount + " a " + args[1], targets, uuid -> {
+                    // La XP dei giocatori online viene assegnata sulla loro regione, insieme ai messaggi.
+                    Player online = Bukkit.getPlayer(uuid);
+                    if (online != null) {
+                        runForPlayer(online, () -> addBattlePassXp(online, amount, "admin"));
+                    } else if (isKnownPlayer(uuid)) {
+                        // Un giocatore archiviato durante l'operazione non riceve un profilo vuoto.
+                        grantBattlePassXp(uuid, null, amount, "admin");
+                    }
+                }));
+                return true;
+            }
+            case "reset": {
+                // /drp reset <bersaglio>: azzera il riscatto giornaliero.
+                if (args.length < 2) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Uso: /drp reset <giocatore|@online|@all> (@all esclude i giocatori archiviati)");
+                    return true;
+                }
+                withAdminTargets(sender, args[1], targets -> startAdminJob(sender, "reset giornaliero di " + args[1], targets, uuid -> {
+                    if (lastClaimDates.remove(uuid) != null) {
+                        markPlayerDirty(uuid);
+                        invalidatePlaceholders(uuid);
+                    }
+                }));
+                return true;
+            }
+            case "revoke": {
+                // /drp revoke <bersaglio> <livello|all>: revoca i livelli BattlePass riscattati.
+                if (args.length < 3) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Uso: /drp revoke <giocatore|@online|@all> <livello|all> (@all esclude i giocatori archiviati)");
+                    return true;
+                }
+                Integer level = null;
+                if (!args[2].equalsIgnoreCase("all")) {
+                    try {
+                        level = Integer.parseInt(args[2]);
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(prefix + ChatColor.RED + "Livello non valido: " + args[2]);
+                        return true;
+                    }
+                }
+                Integer revokedLevel = level;
+                withAdminTargets(sender, args[1], targets -> startAdminJob(sender, "revoca livello " + args[2] + " di " + args[1], targets, uuid -> {
+                    // Revoca e rimozione dell'insieme vuoto in un unico passo: i riscatti aggiungono i livelli
+                    // con un compute sulla stessa chiave, quindi nessun riscatto concorrente va perso.
+                    AtomicBoolean changed = new AtomicBoolean();
+                    playerClaimedLevels.computeIfPresent(uuid, (key, claimedLevels) -> {
+                        changed.set(revokedLevel == null ? !claimedLevels.isEmpty() : claimedLevels.remove(revokedLevel));
+                        return revokedLevel == null || claimedLevels.isEmpty() ? null : claimedLevels;
+                    });
+                    if (changed.get()) {
+                        markPlayerDirty(uuid);
+                        invalidatePlaceholders(uuid);
+                    }
+                }));
+                return true;
+            }
+            case "backup": {
+                // /drp backup [full|list]
+                if (args.length >= 2 && args[1].equalsIgnoreCase("list")) {
+                    listBackups(sender);
+                } else {
+                    runBackup(sender, args.length >= 2 && args[1].equalsIgnoreCase("full"));
+                }
+                return true;
+            }
+            case "restore": {
+                // /drp restore <id>: ricostruisce i dati fino al punto di backup indicato.
+                if (args.length < 2) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Uso: /drp restore <id backup>");
+                    return true;
+                }
+                if (!runningAdminJobs.isEmpty()) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Attendi la fine delle operazioni in corso (/drp jobs) prima del ripristino.");
+                    return true;
+                }
+                restoreBackup(sender, args[1]);
+                return true;
+            }
+            case "jobs": {
+                if (runningAdminJobs.isEmpty()) {
+                    sender.sendMessage(prefix + ChatColor.GRAY + "Nessuna operazione in corso.");
+                    return true;
+                }
+                runningAdminJobs.values().forEach(job -> sender.sendMessage(prefix + ChatColor.GRAY + job.describeProgress()));
+                return true;
+            }
+            case "cancel": {
+                if (args.length < 2) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Uso: /drp cancel <id>");
+                    return true;
+                }
+                AdminJob job;
+                try {
+                    job = runningAdminJobs.get(Integer.parseInt(args[1]));
+                } catch (NumberFormatException e) {
+                    job = null;
+                }
+                if (job == null) {
+                    sender.sendMessage(prefix + ChatColor.RED + "Operazione non trovata: " + args[1]);
+                    return true;
+                }
+                // L'operazione gira sulla regione globale: viene fermata da lì, tra un lotto e l'altro.
+                AdminJob cancelledJob = job;
+                getServer().getGlobalRegionScheduler().execute(this, () -> cancelledJob.finish(true));
+                return true;
+            }
+            default:
+                return false;
         }
+    }
 
-        // Aggiungi XP per il login giornaliero.
-        addBattlePassXp(player, 5); // Esempio: 5 XP per il login
-        getLogger().log(Level.INFO, "Player " + player.getName() + " joined. XP: " + playerBattlePassXp.get(playerUUID));
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!command.getName().equalsIgnoreCase("drp") || !sender.hasPermission("dailyrewardspro.admin")) {
+            return Collections.emptyList();
+        }
+        List<String> options;
+        if (args.length == 1) {
+            options = Arrays.asList("xp", "reset", "revoke", "jobs", "cancel", "audit", "backup", "restore");
+        } else if (args.length == 2 && Arrays.asList("xp", "reset", "revoke", "audit").contains(args[0].toLowerCase(Locale.ROOT))) {
+            options = new ArrayList<>();
+            if (!args[0].equalsIgnoreCase("audit")) {
+                options.add("@online");
+                options.add("@all");
+            }
+            Bukkit.getOnlinePlayers().forEach(online -> options.add(online.getName()));
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("cancel")) {
+            options = runningAdminJobs.keySet().stream().map(String::valueOf).collect(Collectors.toList());
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("backup")) {
+            options = Arrays.asList("full", "list");
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("restore")) {
+            options = getBackupFiles().stream().map(this::getBackupId).collect(Collectors.toList());
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("revoke")) {
+            options = Collections.singletonList("all");
+        } else {
+            return Collections.emptyList();
+        }
+        String typed = args[args.length - 1].toLowerCase(Locale.ROOT);
+        return options.stream().filter(option -> option.toLowerCase(Locale.ROOT).startsWith(typed)).collect(Collectors.toList());
     }
 
-    @EventHandler
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player)) {
+    /**
+     * Risolve il bersaglio di un comando amministrativo: un giocatore, `@online` o `@all`
+     * (tutti i giocatori presenti nei dati attivi, esclusi quelli nell'archivio freddo).
+     * La lista è una copia, quindi l'operazione non risente di giocatori che entrano o escono durante l'esecuzione.
+     * Un singolo giocatore deve avere dei dati: se è nell'archivio freddo viene prima ripristinato in background,
+     * altrimenti il comando viene rifiutato, così non si creano profili vuoti.
+     *
+     * @param sender Chi ha eseguito il comando, per i messaggi di errore.
+     * @param target Il bersaglio indicato.
+     * @param action L'azione da eseguire con gli UUID da elaborare, sul thread di chi ha eseguito il comando.
+     */
+    private void withAdminTargets(CommandSender sender, String target, Consumer<List<UUID>> action) {
+        if (target.equalsIgnoreCase("@online")) {
+            action.accept(Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).collect(Collectors.toList()));
+            return;
+        }
+        if (target.equalsIgnoreCase("@all")) {
+            action.accept(new ArrayList<>(getKnownPlayers()));
+            return;
+        }
+        UUID targetUUID = resolvePlayerUUID(target);
+        if (targetUUID == null) {
+            sender.sendMessage(prefix + ChatColor.RED + "Giocatore non trovato: " + target);
+            return;
+        }
+        if (isKnownPlayer(targetUUID)) {
+            action.accept(Collections.singletonList(targetUUID));
             return;
         }
 
-        Player player = (Player) event.getWhoClicked();
-        UUID playerUUID = player.getUniqueId();
-        Inventory clickedInventory = event.getInventory();
-        ItemStack clickedItem = event.getCurrentItem();
+        getServer().getAsyncScheduler().runNow(this, task -> {
+            boolean restored = restoreFromColdArchive(targetUUID);
+            runForSender(sender, () -> {
+                if (restored) {
+                    action.accept(Collections.singletonList(targetUUID));
+                } else {
+                    sender.sendMessage(prefix + ChatColor.RED + "Nessun dato salvato per " + target + ".");
+                }
+            });
+        });
+    }
 
-        // Previene modifiche accidentali all'inventario del plugin.
-        if (clickedItem == null || clickedItem.getType() == Material.AIR) {
+    /**
+     * Avvia un'operazione amministrativa in blocco sui giocatori indicati.
+     *
+     * @param sender Chi riceve i messaggi di avanzamento.
+     * @param description La descrizione mostrata in `/drp jobs`.
+     * @param targets Gli UUID da elaborare.
+     * @param action L'azione da applicare a ciascun giocatore, sulla regione globale.
+     */
+    private void startAdminJob(CommandSender sender, String description, List<UUID> targets, Consumer<UUID> action) {
+        if (targets.isEmpty()) {
+            sender.sendMessage(prefix + ChatColor.YELLOW + "Nessun giocatore da elaborare.");
             return;
         }
+        AdminJob job = new AdminJob(nextAdminJobId.getAndIncrement(), sender, description, targets, action);
+        runningAdminJobs.put(job.getId(), job);
+        sender.sendMessage(prefix + ChatColor.GREEN + "Avviata operazione #" + job.getId() + " (" + description + ") su " + targets.size() + " giocatori.");
+        job.start();
+    }
 
-        // --- Gestione GUI Ricompense Giornaliere ---
-        if (openClaimGUIs.containsKey(playerUUID) && clickedInventory.equals(openClaimGUIs.get(playerUUID))) {
-            event.setCancelled(true); // Impedisce al giocatore di prendere gli item dalla GUI.
+    /**
+     * Operazione amministrativa in blocco eseguita a lotti sulla regione globale:
+     * a ogni tick elabora al massimo {@link #ADMIN_JOB_BATCH_SIZE} giocatori e si ferma prima se supera
+     * {@link #ADMIN_JOB_TICK_BUDGET_NANOS}, così anche 200k record non bloccano il server.
+     * Riporta l'avanzamento a ogni 10% e salva i dati una sola volta alla fine (o alla cancellazione).
+     */
+    private class AdminJob implements Consumer<ScheduledTask> {
+        private final int id;
+        private final CommandSender sender;
+        private final String description;
+        private final List<UUID> targets;
+        private final Consumer<UUID> action;
+        private int processed;
+        private int lastReportedDecile;
+        private volatile ScheduledTask task;
+
+        AdminJob(int id, CommandSender sender, String description, List<UUID> targets, Consumer<UUID> action) {
+            this.id = id;
+            this.sender = sender;
+            this.description = description;
+            this.targets = targets;
+            this.action = action;
+        }
 
-            if (clickedItem.getType() == Material.LIME_WOOL) { // L'item per riscattare
-                // Controlla se il giocatore ha già riscattato oggi.
-                if (hasPlayerClaimedToday(playerUUID)) {
-                    player.sendMessage(claimedTodayMessage);
-                    player.closeInventory();
-                    return;
-                }
+        int getId() { return id; }
 
-                // Assegna una ricompensa casuale.
-                giveRandomDailyReward(player);
+        void start() {
+            task = getServer().getGlobalRegionScheduler().runAtFixedRate(DailyRewardsPro.this, this, 1L, 1L);
+        }
 
-                // Aggiorna la data dell'ultimo riscatto.
-                lastClaimDates.put(playerUUID, LocalDate.now());
-                savePlayerDataToFile(); // Salva immediatamente dopo il riscatto.
+        @Override
+        public void accept(ScheduledTask scheduledTask) {
+            long deadline = System.nanoTime() + ADMIN_JOB_TICK_BUDGET_NANOS;
+            int batchEnd = Math.min(targets.size(), processed + ADMIN_JOB_BATCH_SIZE);
+            while (processed < batchEnd && System.nanoTime() < deadline) {
+                try {
+                    UUID target = targets.get(processed);
+                    synchronized (playerDataLock(target)) {
+                        action.accept(target);
+                    }
+                } catch (Exception e) {
+                    getLogger().log(Level.WARNING, "Errore nell'operazione #" + id + " per " + targets.get(processed) + ": " + e.getMessage());
+                }
+                processed++;
+            }
 
-                player.sendMessage(rewardReceivedMessage);
+            if (processed >= targets.size()) {
+                finish(false);
+                return;
+            }
+
+            int decile = processed * 10 / targets.size();
+            if (decile > lastReportedDecile) {
+                lastReportedDecile = decile;
+                String progress = describeProgress();
+                runForSender(sender, () -> sender.sendMessage(prefix + ChatColor.GRAY + progress));
+            }
+        }
+
+        String describeProgress() {
+            return "#" + id + " " + description + ": " + processed + "/" + targets.size() + " (" + (processed * 100 / targets.size()) + "%)";
+        }
+
+        /**
+         * Termina l'operazione e salva i dati modificati. Va chiamato sulla regione globale;
+         * le chiamate successive alla prima vengono ignorate.
+         *
+         * @param cancelled true se l'operazione è stata annullata da un amministratore.
+         */
+        void finish(boolean cancelled) {
+            if (runningAdminJobs.remove(id) == null) {
+                return;
+            }
+            task.cancel();
+            requestPlayerDataSave();
+            String result = cancelled
+                    ? ChatColor.YELLOW + "Operazione #" + id + " annullata dopo " + processed + "/" + targets.size() + " giocatori."
+                    : ChatColor.GREEN + "Operazione #" + id + " completata su " + targets.size() + " giocatori.";
+            runForSender(sender, () -> sender.sendMessage(prefix + result));
+        }
+    }
+
+    /**
+     * Risolve un nome giocatore o un UUID senza interrogare i server Mojang.
+     *
+     * @param nameOrUUID Il nome (di un giocatore già visto dal server) o l'UUID.
+     * @return L'UUID del giocatore, o null se sconosciuto.
+     */
+    private UUID resolvePlayerUUID(String nameOrUUID) {
+        try {
+            return UUID.fromString(nameOrUUID);
+        } catch (IllegalArgumentException ignored) {
+            // Non è un UUID: cerca per nome.
+        }
+        Player online = Bukkit.getPlayerExact(nameOrUUID);
+        if (online != null) {
+            return online.getUniqueId();
+        }
+        OfflinePlayer cached = Bukkit.getOfflinePlayerIfCached(nameOrUUID);
+        return cached != null ? cached.getUniqueId() : null;
+    }
+
+    // --- Sezione Registro di Audit ---
+
+    /**
+     * Registra un evento di audit. Non blocca e non fa I/O: l'evento viene solo inserito nel ring buffer.
+     * Se il buffer è pieno l'evento viene scartato e conteggiato.
+     *
+     * @param type Il tipo di transazione.
+     * @param playerUUID L'UUID del giocatore.
+     * @param rewardKey La chiave della ricompensa o l'origine della XP.
+     * @param amount La quantità (item, XP o XP totale allo sblocco del livello).
+     */
+    private void recordAuditEvent(AuditEventType type, UUID playerUUID, String rewardKey, int amount) {
+        auditBuffer.offer(new AuditEvent(System.currentTimeMillis(), type, playerUUID, rewardKey, amount));
+    }
+
+    /**
+     * Svuota il ring buffer scrivendo gli eventi nel file di audit del loro giorno.
+     * Ogni scrittura aggiunge un membro GZIP al file, quindi i file restano compressi senza essere riscritti.
+     * È l'unico consumatore del ring buffer e lo svuota sotto `auditLock`; viene chiamato dal task asincrono.
+     */
+    private void flushAuditLog() {
+        synchronized (auditLock) {
+            Map<LocalDate, StringBuilder> batches = new TreeMap<>();
+            AuditEvent event;
+            while ((event = auditBuffer.poll()) != null) {
+                LocalDate day = Instant.ofEpochMilli(event.getTimestamp()).atZone(ZoneId.systemDefault()).toLocalDate();
+                batches.computeIfAbsent(day, d -> new StringBuilder()).append(event.toCsvLine()).append('\n');
+            }
+
+            long dropped = auditBuffer.resetDropped();
+            if (dropped > 0) {
+                getLogger().log(Level.WARNING, "Buffer di audit pieno: " + dropped + " eventi scartati.");
+            }
+
+            for (Map.Entry<LocalDate, StringBuilder> batch : batches.entrySet()) {
+                File auditFile = getAuditFile(batch.getKey());
+                try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(auditFile, true)), StandardCharsets.UTF_8)) {
+                    writer.write(batch.getValue().toString());
+                } catch (IOException e) {
+                    getLogger().log(Level.SEVERE, "Impossibile scrivere " + auditFile.getName() + ": " + e.getMessage());
+                }
+            }
+
+            // Rotazione giornaliera: al cambio di giorno elimina i file più vecchi della retention.
+            LocalDate today = LocalDate.now();
+            if (!today.equals(lastAuditRotationDate)) {
+                lastAuditRotationDate = today;
+                deleteExpiredAuditFiles(today.minusDays(AUDIT_RETENTION_DAYS));
+            }
+        }
+    }
+
+    /**
+     * Elimina i file di audit precedenti alla data indicata.
+     *
+     * @param oldestKept La data del file più vecchio da conservare.
+     */
+    private void deleteExpiredAuditFiles(LocalDate oldestKept) {
+        File[] files = auditFolder.listFiles((dir, name) -> name.startsWith("audit-") && name.endsWith(".csv.gz"));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            try {
+                LocalDate day = LocalDate.parse(file.getName().substring("audit-".length(), file.getName().length() - ".csv.gz".length()));
+                if (day.isBefore(oldestKept) && !file.delete()) {
+                    getLogger().log(Level.WARNING, "Impossibile eliminare il file di audit scaduto " + file.getName());
+                }
+            } catch (DateTimeParseException ignored) {
+                // File con nome non riconosciuto: viene lasciato dov'è.
+            }
+        }
+    }
+
+    private File getAuditFile(LocalDate day) {
+        return new File(auditFolder, "audit-" + day + ".csv.gz");
+    }
+
+    /**
+     * Cerca in background gli eventi di audit di un giocatore in un intervallo di date
+     * e invia al richiedente gli ultimi risultati trovati.
+     *
+     * @param sender Chi ha richiesto la ricerca.
+     * @param targetName Il nome mostrato nei risultati.
+     * @param targetUUID L'UUID del giocatore cercato.
+     * @param from La prima data inclusa.
+     * @param to L'ultima data inclusa.
+     */
+    private void queryAuditLog(CommandSender sender, String targetName, UUID targetUUID, LocalDate from, LocalDate to) {
+        sender.sendMessage(prefix + ChatColor.GRAY + "Ricerca nell'audit di " + targetName + " dal " + from + " al " + to + "...");
+        String uuidString = targetUUID.toString();
+
+        getServer().getAsyncScheduler().runNow(this, task -> {
+            // Scrive prima gli eventi ancora nel buffer, così la ricerca li include. Il task di flush continua ad
+            // aggiungere membri GZIP ai file di oggi e di ieri (eventi a cavallo della mezzanotte): di questi file
+            // si legge una copia presa sotto `auditLock`, così un membro in scrittura non viene mai letto a metà.
+            Map<LocalDate, byte[]> recentFiles = new HashMap<>();
+            LocalDate firstRecentDay = LocalDate.now().minusDays(1);
+            synchronized (auditLock) {
+                flushAuditLog();
+                for (LocalDate day = firstRecentDay; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+                    File auditFile = getAuditFile(day);
+                    if (day.isBefore(from) || day.isAfter(to) || !auditFile.exists()) {
+                        continue;
+                    }
+                    try {
+                        recentFiles.put(day, Files.readAllBytes(auditFile.toPath()));
+                    } catch (IOException e) {
+                        getLogger().log(Level.WARNING, "Impossibile leggere " + auditFile.getName() + ": " + e.getMessage());
+                    }
+                }
+            }
+
+            Deque<String> results = new ArrayDeque<>();
+            int totalMatches = 0;
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                File auditFile = getAuditFile(day);
+                byte[] recentFile = recentFiles.get(day);
+                if (recentFile == null && (!day.isBefore(firstRecentDay) || !auditFile.exists())) {
+                    continue; // I file recenti si leggono solo dalla copia.
+                }
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(recentFile != null
+                        ? new ByteArrayInputStream(recentFile) : new FileInputStream(auditFile)), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        AuditEvent event = AuditEvent.fromCsvLine(line);
+                        if (event == null || !uuidString.equals(event.getPlayerUUID().toString())) {
+                            continue;
+                        }
+                        totalMatches++;
+                        results.addLast(event.toDisplayLine());
+                        if (results.size() > AUDIT_QUERY_MAX_RESULTS) {
+                            results.removeFirst();
+                        }
+                    }
+                } catch (IOException e) {
+                    getLogger().log(Level.WARNING, "Impossibile leggere " + auditFile.getName() + ": " + e.getMessage());
+                }
+            }
+
+            int matches = totalMatches;
+            runForSender(sender, () -> {
+                if (results.isEmpty()) {
+                    sender.sendMessage(prefix + ChatColor.YELLOW + "Nessun evento trovato per " + targetName + ".");
+                    return;
+                }
+                sender.sendMessage(prefix + ChatColor.GOLD + "Eventi trovati: " + matches + " (ultimi " + results.size() + "):");
+                results.forEach(resultLine -> sender.sendMessage(ChatColor.GRAY + resultLine));
+            });
+        });
+    }
+
+    /**
+     * Tipi di transazione registrati nell'audit.
+     */
+    private enum AuditEventType {
+        CLAIM_DAILY,
+        CLAIM_LEVEL,
+        XP_GRANT,
+        LEVEL_UNLOCK
+    }
+
+    /**
+     * Singolo evento di audit, immutabile.
+     * Questa è una classe interna per rispettare il vincolo del singolo file Java.
+     */
+    private static class AuditEvent {
+        private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("dd/MM HH:mm:ss");
+
+        private final long timestamp;
+        private final AuditEventType type;
+        private final UUID playerUUID;
+        private final String rewardKey;
+        private final int amount;
+
+        public AuditEvent(long timestamp, AuditEventType type, UUID playerUUID, String rewardKey, int amount) {
+            this.timestamp = timestamp;
+            this.type = type;
+            this.playerUUID = playerUUID;
+            this.rewardKey = rewardKey;
+            this.amount = amount;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public UUID getPlayerUUID() { return playerUUID; }
+
+        /**
+         * Formato su file: timestamp in millisecondi,uuid,tipo,chiave ricompensa,quantità.
+         */
+        public String toCsvLine() {
+            return timestamp + "," + playerUUID + "," + type.name() + "," + rewardKey.replace(',', '_') + "," + amount;
+        }
+
+        public String toDisplayLine() {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+            return "[" + DISPLAY_FORMAT.format(time) + "] " + type.name() + " " + rewardKey + " x" + amount;
+        }
+
+        /**
+         * Ricostruisce un evento da una riga del file, o restituisce null se la riga non è valida.
+         */
+        public static AuditEvent fromCsvLine(String line) {
+            String[] parts = line.split(",", 5);
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new AuditEvent(Long.parseLong(parts[0]), AuditEventType.valueOf(parts[2]), UUID.fromString(parts[1]), parts[3], Integer.parseInt(parts[4]));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Ring buffer limitato, lock-free per più produttori e un solo consumatore.
+     * Ogni cella ha un numero di sequenza che indica se è libera per il produttore della posizione corrente
+     * o pronta per il consumatore; i produttori si contendono la posizione con compare-and-set.
+     * Se il buffer è pieno, offer scarta l'evento invece di bloccare il thread chiamante.
+     */
+    private static class AuditRingBuffer {
+        private final AtomicReferenceArray<AuditEvent> slots;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private long head; // Usato solo dal consumatore.
+
+        public AuditRingBuffer(int capacity) {
+            if (Integer.bitCount(capacity) != 1) {
+                throw new IllegalArgumentException("La capacità deve essere una potenza di due: " + capacity);
+            }
+            slots = new AtomicReferenceArray<>(capacity);
+            sequences = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        public boolean offer(AuditEvent event) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) (position & mask);
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        slots.set(index, event);
+                        sequences.set(index, position + 1); // Pubblica la cella al consumatore.
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    dropped.incrementAndGet(); // Buffer pieno.
+                    return false;
+                } else {
+                    position = tail.get(); // Un altro produttore ha preso la posizione.
+                }
+            }
+        }
+
+        public AuditEvent poll() {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                return null; // Nessun evento pubblicato.
+            }
+            AuditEvent event = slots.get(index);
+            slots.set(index, null);
+            sequences.set(index, head + mask + 1); // Libera la cella per il giro successivo.
+            head++;
+            return event;
+        }
+
+        public long resetDropped() {
+            return dropped.getAndSet(0);
+        }
+    }
+
+    // --- Sezione Gestione Eventi ---
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        UUID playerUUID = player.getUniqueId();
+        loginsInProgress.remove(playerUUID);
+
+        // Inizializza l'XP del BattlePass per i nuovi giocatori o carica quelli esistenti.
+        // I dati salvati sono già tutti in memoria: data.yml non viene riletto, dato che può essere in scrittura.
+        playerBattlePassXp.putIfAbsent(playerUUID, 0);
+
+        // Azzera i dati BattlePass se il giocatore appartiene a una stagione precedente.
+        ensurePlayerSeason(playerUUID);
+        lastSeenDates.put(playerUUID, LocalDate.now());
+        markPlayerDirty(playerUUID);
+
+        // Aggiungi XP per il login giornaliero.
+        addBattlePassXp(player, 5, "login"); // Esempio: 5 XP per il login
+
+        // Ricorda al giocatore le ricompense rimaste nella cassetta.
+        List<ItemStack> mailbox = pendingRewardMailboxes.get(playerUUID);
+        if (mailbox != null && !mailbox.isEmpty()) {
+            sendMessage(player, "mailbox-pending", "count", String.valueOf(mailbox.size()));
+        }
+        getLogger().log(Level.FINE, () -> "Player " + player.getName() + " joined. XP: " + playerBattlePassXp.get(playerUUID));
+    }
+
+    @EventHandler
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        // Finché il giocatore non entra non può essere archiviato, anche se non risulta ancora online.
+        loginsInProgress.put(event.getUniqueId(), System.currentTimeMillis());
+        // Siamo su un thread asincrono: l'accesso all'archivio non rallenta il server.
+        restoreFromColdArchive(event.getUniqueId());
+    }
+
+    @EventHandler
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) {
+            return;
+        }
+
+        Player player = (Player) event.getWhoClicked();
+        UUID playerUUID = player.getUniqueId();
+        Inventory clickedInventory = event.getInventory();
+        ItemStack clickedItem = event.getCurrentItem();
+
+        // Previene modifiche accidentali all'inventario del plugin.
+        if (clickedItem == null || clickedItem.getType() == Material.AIR) {
+            return;
+        }
+
+        // --- Gestione GUI Ricompense Giornaliere ---
+        if (openClaimGUIs.containsKey(playerUUID) && clickedInventory.equals(openClaimGUIs.get(playerUUID))) {
+            event.setCancelled(true); // Impedisce al giocatore di prendere gli item dalla GUI.
+
+            if (event.getRawSlot() == MAILBOX_BUTTON_SLOT && clickedItem.getType() == Material.CHEST) { // La scheda della cassetta
+                openClaimGUIs.remove(playerUUID);
+                openMailboxGUI(player);
+            } else if (clickedItem.getType() == Material.LIME_WOOL) { // L'item per riscattare
+                if (!beginClaim(playerUUID)) {
+                    return; // Un altro riscatto è in corso: il clic duplicato viene ignorato.
+                }
+
+                try {
+                    // Controlla e aggiorna la data dell'ultimo riscatto in un solo passo, prima della consegna,
+                    // così ogni tentativo successivo lo vede già riscattato.
+                    if (!markDailyRewardClaimed(playerUUID)) {
+                        sendMessage(player, "claimed-today");
+                        player.closeInventory();
+                        return;
+                    }
+
+                    // Assegna una ricompensa casuale.
+                    giveRandomDailyReward(player);
+                    requestPlayerDataSave(); // Salva in background subito dopo il riscatto.
+                } finally {
+                    releaseClaim(playerUUID);
+                }
+
+                sendMessage(player, "reward-received");
                 player.closeInventory();
 
                 // Rimuovi l'inventario dalla mappa dopo la chiusura.
                 openClaimGUIs.remove(playerUUID);
 
             } else if (clickedItem.getType() == Material.RED_WOOL) { // L'item "già riscattato"
-                player.sendMessage(claimedTodayMessage);
+                sendMessage(player, "claimed-today");
                 event.setCancelled(true); // Impedisce interazione con l'item.
             }
             return;
         }
 
+        // --- Gestione GUI Cassetta Ricompense ---
+        if (openMailboxGUIs.containsKey(playerUUID) && clickedInventory.equals(openMailboxGUIs.get(playerUUID))) {
+            event.setCancelled(true); // Gli item mostrati sono solo copie: la consegna passa da redeliverMailbox.
+
+            int clickedSlot = event.getRawSlot();
+            if (clickedSlot != MAILBOX_COLLECT_ALL_SLOT && (clickedSlot < 0 || clickedSlot >= MAILBOX_ITEM_SLOTS)) {
+                return;
+            }
+
+            if (!beginClaim(playerUUID)) {
+                return; // Un'altra consegna è in corso.
+            }
+            try {
+                redeliverMailbox(player, clickedSlot == MAILBOX_COLLECT_ALL_SLOT ? -1 : clickedSlot);
+                requestPlayerDataSave(); // Salva la cassetta aggiornata.
+            } finally {
+                releaseClaim(playerUUID);
+            }
+            openMailboxGUI(player);
+            return;
+        }
+
         // --- Gestione GUI BattlePass ---
         if (openBattlePassGUIs.containsKey(playerUUID) && clickedInventory.equals(openBattlePassGUIs.get(playerUUID))) {
             event.setCancelled(true); // Impedisce modifiche.
@@ -691,40 +2574,82 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
             // Questo richiede che la logica di posizionamento nella openBattlePassGUI() sia coerente.
             int clickedSlot = event.getRawSlot();
 
+            // Pulsanti fissi: progressi (solo informativo) e riscatto di tutti i livelli.
+            if (clickedSlot == BATTLEPASS_PROGRESS_SLOT) {
+                return;
+            }
+            if (clickedSlot == BATTLEPASS_CLAIM_ALL_SLOT) {
+                claimAllBattlePassRewards(player);
+                return;
+            }
+
             // Calcola il livello in base allo slot cliccato.
             // Se ogni livello occupa 2 slot e inizia dallo slot 0, allora:
             int clickedLevel = (clickedSlot / 2) + 1;
 
             // Assicurati che il livello sia valido e presente nella configurazione.
-            if (!battlePassLevelThresholds.containsKey(clickedLevel)) {
+            // Tutto il clic usa la stessa stagione, anche se nel frattempo ne inizia un'altra.
+            BattlePassSeason season = activeSeason;
+            Integer requiredXPForLevel = season.getLevelThresholds().get(clickedLevel);
+            if (requiredXPForLevel == null) {
                 getLogger().log(Level.WARNING, "Il giocatore " + player.getName() + " ha cliccato uno slot non valido per il BattlePass: " + clickedSlot);
                 return;
             }
 
-            int playerXP = playerBattlePassXp.getOrDefault(playerUUID, 0);
-            int requiredXPForLevel = battlePassLevelThresholds.get(clickedLevel);
-
-            if (playerXP >= requiredXPForLevel) {
-                // Livello raggiunto, ora controlla se è già riscattato.
-                if (!hasBattlePassRewardClaimed(playerUUID, clickedLevel)) {
-                    // Riscattabile!
-                    getLogger().log(Level.INFO, player.getName() + " ha riscattato la ricompensa del livello " + clickedLevel);
-                    giveBattlePassReward(player, clickedLevel);
-                    setBattlePassRewardClaimed(playerUUID, clickedLevel); // Marchia come riscattato
-                    savePlayerDataToFile(); // Salva dopo il riscatto
+            if (!beginClaim(playerUUID)) {
+                return; // Un altro riscatto è in corso: il clic duplicato viene ignorato.
+            }
 
-                    player.sendMessage(prefix + ChatColor.GREEN + "Hai riscattato la ricompensa del BattlePass per il livello " + clickedLevel + "!");
-                    // Riapri la GUI per mostrare lo stato aggiornato
-                    openBattlePassGUI(player);
+            boolean claimed = false;
+            try {
+                if (ensurePlayerSeason(playerUUID) != season) {
+                    return; // La stagione è cambiata dopo il clic, che si riferiva a quella precedente.
+                }
+                int playerXP = playerBattlePassXp.getOrDefault(playerUUID, 0);
+
+                if (playerXP >= requiredXPForLevel) {
+                    // Livello raggiunto: lo marchia come riscattato prima della consegna, solo se non lo era già.
+                    if (setBattlePassRewardClaimed(playerUUID, season, clickedLevel)) {
+                        getLogger().log(Level.FINE, () -> player.getName() + " ha riscattato la ricompensa del livello " + clickedLevel);
+                        giveBattlePassReward(player, season, clickedLevel);
+                        recordAuditEvent(AuditEventType.CLAIM_LEVEL, playerUUID, "level_" + clickedLevel, 1);
+                        requestPlayerDataSave(); // Salva dopo il riscatto
+                        claimed = true;
+
+                        sendMessage(player, "battlepass-level-claimed", "level", String.valueOf(clickedLevel));
+                    } else {
+                        sendMessage(player, "battlepass-level-already-claimed", "level", String.valueOf(clickedLevel));
+                    }
                 } else {
-                    player.sendMessage(prefix + ChatColor.YELLOW + "Hai già riscattato la ricompensa per il livello " + clickedLevel + ".");
+                    sendMessage(player, "battlepass-level-not-reached", "level", String.valueOf(clickedLevel));
                 }
-            } else {
-                player.sendMessage(prefix + ChatColor.RED + "Non hai ancora raggiunto il livello " + clickedLevel + " del BattlePass.");
+            } finally {
+                releaseClaim(playerUUID);
+            }
+
+            if (claimed) {
+                // Riapri la GUI per mostrare lo stato aggiornato
+                openBattlePassGUI(player);
             }
         }
     }
 
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // Rimuove lo stato dei riscatti se non c'è una transazione in corso.
+        playerClaimStates.computeIfPresent(event.getPlayer().getUniqueId(), (uuid, state) -> state.get() ? state : null);
+        forgetPlaceholders(event.getPlayer().getUniqueId());
+        playerMessageCatalogs.remove(event.getPlayer().getUniqueId());
+        loginsInProgress.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onPlayerLocaleChange(PlayerLocaleChangeEvent event) {
+        // Il client comunica la lingua dopo l'ingresso e a ogni cambio: aggiorna il catalogo del giocatore.
+        playerMessageCatalogs.put(event.getPlayer().getUniqueId(), resolveMessageCatalog(event.getLocale()));
+        invalidatePlaceholders(event.getPlayer().getUniqueId());
+    }
+
     // --- Sezione Gestione Ricompense Giornaliere ---
 
     /**
@@ -738,6 +2663,26 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
         return lastClaimDate != null && lastClaimDate.isEqual(LocalDate.now());
     }
 
+    /**
+     * Registra il riscatto giornaliero di oggi, se non è già stato fatto.
+     * Controllo e aggiornamento sono un unico compare-and-set sulla data dell'ultimo riscatto.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @return true se il riscatto è stato registrato ora, false se il giocatore aveva già riscattato oggi.
+     */
+    private boolean markDailyRewardClaimed(UUID playerUUID) {
+        LocalDate today = LocalDate.now();
+        LocalDate lastClaimDate = lastClaimDates.get(playerUUID);
+        boolean marked = lastClaimDate == null
+                ? lastClaimDates.putIfAbsent(playerUUID, today) == null
+                : !lastClaimDate.isEqual(today) && lastClaimDates.replace(playerUUID, lastClaimDate, today);
+        if (marked) {
+            markPlayerDirty(playerUUID);
+            invalidatePlaceholders(playerUUID);
+        }
+        return marked;
+    }
+
     /**
      * Assegna una ricompensa giornaliera casuale al giocatore.
      * La ricompensa viene scelta dalla lista `availableRewards`.
@@ -746,15 +2691,16 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
      */
     private void giveRandomDailyReward(Player player) {
         if (availableRewards.isEmpty()) {
-            player.sendMessage(prefix + ChatColor.RED + "Nessuna ricompensa giornaliera configurata. Contatta un amministratore.");
+            sendMessage(player, "no-daily-rewards");
             getLogger().log(Level.WARNING, "Il file rewards.yml è vuoto o malformato. Nessuna ricompensa da dare.");
             return;
         }
 
         // Seleziona una ricompensa casuale.
-        List<RewardItem> rewardsList = new ArrayList<>(availableRewards.values());
+        List<Map.Entry<String, RewardItem>> rewardsList = new ArrayList<>(availableRewards.entrySet());
         Random random = new Random();
-        RewardItem chosenReward = rewardsList.get(random.nextInt(rewardsList.size()));
+        Map.Entry<String, RewardItem> chosenEntry = rewardsList.get(random.nextInt(rewardsList.size()));
+        RewardItem chosenReward = chosenEntry.getValue();
 
         // Dai l'item al giocatore.
         ItemStack rewardItem = new ItemStack(chosenReward.getMaterial(), chosenReward.getAmount());
@@ -765,23 +2711,622 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
             rewardItem.setItemMeta(meta);
         }
 
-        // Assicurati che l'inventario del giocatore non sia pieno.
-        // Se l'inventario è pieno, droppa l'item a terra.
-        if (player.getInventory().firstEmpty() == -1) {
-            player.getWorld().dropItemNaturally(player.getLocation(), rewardItem);
-            player.sendMessage(prefix + ChatColor.YELLOW + "Il tuo inventario è pieno, la ricompensa è stata droppata a terra!");
-        } else {
-            player.getInventory().addItem(rewardItem);
-        }
+        // Consegna l'item; quello che non entra nell'inventario finisce nella cassetta.
+        deliverRewardItems(player, Collections.singletonList(rewardItem));
 
-        // Esegui i comandi associati alla ricompensa.
-        for (String cmd : chosenReward.getCommands()) {
-            String processedCmd = cmd.replace("%player%", player.getName());
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCmd);
+        // Esegui i comandi associati alla ricompensa sulla regione globale.
+        if (!chosenReward.getCommands().isEmpty()) {
+            dispatchRewardCommands(player, chosenReward.getCommands());
         }
 
+        recordAuditEvent(AuditEventType.CLAIM_DAILY, player.getUniqueId(), chosenEntry.getKey(), chosenReward.getAmount());
+
         // Aggiungi XP al BattlePass per aver riscattato la ricompensa.
-        addBattlePassXp(player, chosenReward.getXpReward());
+        addBattlePassXp(player, chosenReward.getXpReward(), chosenEntry.getKey());
+    }
+
+    // --- Sezione Archivio Giocatori Inattivi ---
+
+    private LocalDate getLastActivityDate(UUID playerUUID) {
+        LocalDate lastSeen = lastSeenDates.getOrDefault(playerUUID, LocalDate.MIN);
+        LocalDate lastClaim = lastClaimDates.getOrDefault(playerUUID, LocalDate.MIN);
+        return lastSeen.isAfter(lastClaim) ? lastSeen : lastClaim;
+    }
+
+    /**
+     * Un giocatore è inattivo se non è online, non sta entrando e non ha attività dopo la data limite.
+     */
+    private boolean isInactive(UUID playerUUID, LocalDate cutoff) {
+        if (Bukkit.getPlayer(playerUUID) != null) {
+            return false;
+        }
+        Long loginStarted = loginsInProgress.get(playerUUID);
+        if (loginStarted != null && System.currentTimeMillis() - loginStarted < LOGIN_GRACE_MILLIS) {
+            return false;
+        }
+        return getLastActivityDate(playerUUID).isBefore(cutoff);
+    }
+
+    /**
+     * Sposta nell'archivio freddo i giocatori offline senza accessi né riscatti da più di
+     * `inactive-players.ttl-days` giorni. Gira sullo scheduler asincrono: i profili vengono copiati,
+     * scritti nell'archivio e rimossi dai dati attivi solo dopo la scrittura, e solo se nel frattempo non sono
+     * cambiati. Tutto avviene sotto il lock dell'archivio, così non si sovrappone al ripristino di un giocatore
+     * che sta entrando.
+     */
+    private void pruneInactivePlayers() {
+        int ttlDays = getConfig().getInt("inactive-players.ttl-days", 180);
+        if (ttlDays <= 0) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(ttlDays);
+
+        synchronized (coldArchiveLock) {
+            Map<UUID, String> expiredProfiles = new HashMap<>();
+            Map<UUID, Long> copiedStamps = new HashMap<>();
+            for (UUID playerUUID : getKnownPlayers()) {
+                if (isInactive(playerUUID, cutoff)) {
+                    // Il numero di modifica va letto prima della copia: una modifica durante la copia lo fa cambiare.
+                    copiedStamps.put(playerUUID, playerDataStamps.getOrDefault(playerUUID, 0L));
+                    YamlConfiguration profile = new YamlConfiguration();
+                    writePlayerProfile(profile, playerUUID);
+                    // Serve all'unione: un profilo attivo senza attività da questa data è una copia di quello archiviato.
+                    profile.set("archived_date", LocalDate.now().toString());
+                    expiredProfiles.put(playerUUID, profile.saveToString());
+                }
+            }
+            if (expiredProfiles.isEmpty()) {
+                return;
+            }
+
+            try {
+                writeToColdArchive(expiredProfiles);
+            } catch (IOException e) {
+                getLogger().log(Level.SEVERE, "Impossibile scrivere l'archivio dei giocatori inattivi: " + e.getMessage());
+                return;
+            }
+
+            int archived = 0;
+            Set<UUID> keptPlayers = new HashSet<>();
+            for (UUID playerUUID : expiredProfiles.keySet()) {
+                // Il giocatore potrebbe essere tornato o essere stato modificato dopo la copia (es. /drp xp @all):
+                // resta nei dati attivi e la copia archiviata, ormai superata, viene tolta dall'archivio, così non
+                // verrà mai unita due volte. Controllo e rimozione avvengono sotto il lock del giocatore, lo stesso
+                // delle operazioni amministrative, quindi nessuna modifica può cadere tra i due.
+                synchronized (playerDataLock(playerUUID)) {
+                    if (isInactive(playerUUID, cutoff)
+                            && playerDataStamps.getOrDefault(playerUUID, 0L).equals(copiedStamps.get(playerUUID))) {
+                        forgetPlayerProfile(playerUUID);
+                        archived++;
+                    } else {
+                        keptPlayers.add(playerUUID);
+                    }
+                }
+            }
+            if (!keptPlayers.isEmpty()) {
+                try {
+                    removeFromColdArchive(keptPlayers);
+                } catch (IOException e) {
+                    getLogger().log(Level.SEVERE, "Impossibile togliere dall'archivio i giocatori rimasti attivi: " + e.getMessage());
+                }
+            }
+            savePlayerDataToFile();
+            getLogger().log(Level.INFO, "Archiviati " + archived + " giocatori inattivi da più di " + ttlDays + " giorni.");
+        }
+    }
+
+    /**
+     * Se il giocatore è nell'archivio freddo, ne ripristina il profilo nei dati attivi e lo rimuove dall'archivio.
+     * Se nel frattempo il giocatore ha già un profilo attivo, quello archiviato viene unito e non scartato.
+     * Va chiamato da un thread asincrono, ad esempio prima dell'ingresso, così il profilo è già disponibile quando il giocatore entra.
+     * Lettura, ripristino e rimozione avvengono sotto il lock dell'archivio, quindi non si sovrappongono a un'archiviazione.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @return true se il giocatore era nell'archivio ed è stato ripristinato.
+     */
+    private boolean restoreFromColdArchive(UUID playerUUID) {
+        File shardFile = getColdArchiveShard(playerUUID);
+        if (!shardFile.exists()) {
+            return false;
+        }
+
+        synchronized (coldArchiveLock) {
+            try {
+                YamlConfiguration shard = readColdArchiveShard(shardFile);
+                String profileText = shard.getString(playerUUID.toString());
+                if (profileText == null) {
+                    return false;
+                }
+
+                YamlConfiguration profile = new YamlConfiguration();
+                profile.loadFromString(profileText);
+                if (isKnownPlayer(playerUUID)) {
+                    mergeArchivedProfile(profile, playerUUID);
+                    getLogger().log(Level.INFO, "Unito il profilo archiviato di " + playerUUID + " ai dati attivi.");
+                } else {
+                    readPlayerProfile(profile, playerUUID);
+                    getLogger().log(Level.INFO, "Ripristinato dall'archivio il profilo di " + playerUUID + ".");
+                }
+                lastSeenDates.put(playerUUID, LocalDate.now());
+                markPlayerDirty(playerUUID);
+
+                // Il profilo è già nei dati attivi: solo ora può essere tolto dall'archivio.
+                shard.set(playerUUID.toString(), null);
+                writeColdArchiveShard(shardFile, shard);
+                return true;
+            } catch (IOException | InvalidConfigurationException e) {
+                getLogger().log(Level.SEVERE, "Impossibile ripristinare il profilo archiviato di " + playerUUID + ": " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Toglie dei profili dall'archivio freddo senza ripristinarli. Va chiamato tenendo il lock dell'archivio.
+     *
+     * @param playerUUIDs Gli UUID da togliere.
+     */
+    private void removeFromColdArchive(Set<UUID> playerUUIDs) throws IOException {
+        Map<File, List<UUID>> playersByShard = new HashMap<>();
+        playerUUIDs.forEach(uuid -> playersByShard.computeIfAbsent(getColdArchiveShard(uuid), file -> new ArrayList<>()).add(uuid));
+        for (Map.Entry<File, List<UUID>> entry : playersByShard.entrySet()) {
+            if (!entry.getKey().exists()) {
+                continue;
+            }
+            YamlConfiguration shard = readColdArchiveShard(entry.getKey());
+            entry.getValue().forEach(uuid -> shard.set(uuid.toString(), null));
+            writeColdArchiveShard(entry.getKey(), shard);
+        }
+    }
+
+    /**
+     * Aggiunge i profili all'archivio freddo, aggiornando ogni file dell'archivio una sola volta.
+     *
+     * @param profiles UUID del giocatore -> Profilo in formato YAML.
+     */
+    private void writeToColdArchive(Map<UUID, String> profiles) throws IOException {
+        Map<File, List<UUID>> playersByShard = new HashMap<>();
+        profiles.keySet().forEach(uuid -> playersByShard.computeIfAbsent(getColdArchiveShard(uuid), file -> new ArrayList<>()).add(uuid));
+
+        synchronized (coldArchiveLock) {
+            for (Map.Entry<File, List<UUID>> entry : playersByShard.entrySet()) {
+                YamlConfiguration shard = readColdArchiveShard(entry.getKey());
+                entry.getValue().forEach(uuid -> shard.set(uuid.toString(), profiles.get(uuid)));
+                writeColdArchiveShard(entry.getKey(), shard);
+            }
+        }
+    }
+
+    private File getColdArchiveShard(UUID playerUUID) {
+        return new File(coldArchiveFolder, "players-" + playerUUID.toString().substring(0, 2) + ".yml.gz");
+    }
+
+    private YamlConfiguration readColdArchiveShard(File shardFile) throws IOException {
+        YamlConfiguration shard = new YamlConfiguration();
+        if (!shardFile.exists()) {
+            return shard;
+        }
+        try (GZIPInputStream input = new GZIPInputStream(new FileInputStream(shardFile))) {
+            shard.loadFromString(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            throw new IOException("file dell'archivio non valido: " + shardFile.getName(), e);
+        }
+        return shard;
+    }
+
+    /**
+     * Scrive un file dell'archivio passando da un file temporaneo, così un errore a metà non lo corrompe.
+     */
+    private void writeColdArchiveShard(File shardFile, YamlConfiguration shard) throws IOException {
+        if (shard.getKeys(false).isEmpty()) {
+            Files.deleteIfExists(shardFile.toPath());
+            return;
+        }
+        File tempFile = new File(shardFile.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(tempFile)), StandardCharsets.UTF_8)) {
+            writer.write(shard.saveToString());
+        }
+        Files.move(tempFile.toPath(), shardFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // --- Sezione Backup Dati Giocatori ---
+
+    /**
+     * Segna un giocatore come modificato, così il prossimo backup incrementale ne includerà il profilo
+     * e un'archiviazione in corso non lo toglierà dai dati attivi.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void markPlayerDirty(UUID playerUUID) {
+        dirtyPlayers.add(playerUUID);
+        playerDataStamps.put(playerUUID, playerDataStampCounter.incrementAndGet());
+    }
+
+    /**
+     * Restituisce il lock della striscia a cui appartiene il giocatore.
+     */
+    private Object playerDataLock(UUID playerUUID) {
+        return playerDataLocks[Math.floorMod(playerUUID.hashCode(), PLAYER_DATA_LOCK_STRIPES)];
+    }
+
+    /**
+     * Esegue un backup dei dati giocatori. Copia dei profili, compressione e scrittura avvengono in background:
+     * ogni profilo è una copia coerente (vedi {@link #writePlayerProfile}), presa senza fermare la regione globale. Il backup è completo ogni `backups.full-every` backup,
+     * altrimenti contiene solo i giocatori modificati dall'ultimo backup.
+     *
+     * @param sender Chi ha richiesto il backup, o null se è il backup periodico.
+     * @param forceFull true per forzare un backup completo.
+     */
+    private void runBackup(CommandSender sender, boolean forceFull) {
+        int fullEvery = Math.max(1, getConfig().getInt("backups.full-every", 48));
+        int sinceFull = backupsSinceFull.get();
+        boolean full = forceFull || sinceFull < 0 || sinceFull + 1 >= fullEvery;
+        if (!full && dirtyPlayers.isEmpty()) {
+            if (sender != null) {
+                sender.sendMessage(prefix + ChatColor.GRAY + "Nessuna modifica dall'ultimo backup.");
+            }
+            return;
+        }
+
+        // Toglie dal set solo i giocatori copiati: chi viene modificato nel frattempo resta per il prossimo backup.
+        String backupId = LocalDateTime.now().format(BACKUP_ID_FORMAT);
+        Set<UUID> includedPlayers = new HashSet<>(dirtyPlayers);
+        dirtyPlayers.removeAll(includedPlayers);
+        backupsSinceFull.set(full ? 0 : sinceFull + 1);
+
+        getServer().getAsyncScheduler().runNow(this, task -> {
+            IOException writeError = null;
+            try {
+                writeBackupFile(backupId, createBackupSnapshot(full, includedPlayers));
+                deleteExpiredBackups();
+            } catch (IOException e) {
+                getLogger().log(Level.SEVERE, "Impossibile scrivere il backup " + backupId + ": " + e.getMessage());
+                writeError = e;
+            }
+
+            if (writeError != null) {
+                // Le modifiche non sono state salvate: il prossimo backup sarà completo.
+                dirtyPlayers.addAll(includedPlayers);
+                backupsSinceFull.set(-1);
+            }
+            if (sender == null) {
+                return;
+            }
+            String result = writeError != null
+                    ? ChatColor.RED + "Backup " + backupId + " non riuscito: " + writeError.getMessage()
+                    : ChatColor.GREEN + "Backup " + (full ? "completo" : "incrementale") + " " + backupId + " creato.";
+            runForSender(sender, () -> sender.sendMessage(prefix + result));
+        });
+    }
+
+    /**
+     * Copia in una configurazione separata i profili da salvare nel backup.
+     * Un backup incrementale contiene i giocatori modificati e l'elenco di quelli rimossi (ad esempio archiviati).
+     *
+     * @param full true per includere tutti i giocatori.
+     * @param changedPlayers I giocatori modificati dall'ultimo backup.
+     * @return La copia dei dati, scollegata dalle mappe dei giocatori.
+     */
+    private YamlConfiguration createBackupSnapshot(boolean full, Set<UUID> changedPlayers) {
+        Set<UUID> knownPlayers = getKnownPlayers();
+        YamlConfiguration snapshot = new YamlConfiguration();
+        snapshot.set("type", full ? "full" : "delta");
+        snapshot.set("created", LocalDateTime.now().toString());
+
+        List<String> removedPlayers = new ArrayList<>();
+        for (UUID playerUUID : full ? knownPlayers : changedPlayers) {
+            if (knownPlayers.contains(playerUUID)) {
+                writePlayerProfile(snapshot.createSection("players." + playerUUID), playerUUID);
+            } else {
+                removedPlayers.add(playerUUID.toString());
+            }
+        }
+        snapshot.set("removed", removedPlayers);
+        return snapshot;
+    }
+
+    /**
+     * Scrive un backup compresso passando da un file temporaneo.
+     *
+     * @param backupId L'identificativo (data e ora) del backup.
+     * @param snapshot La copia dei dati da scrivere.
+     */
+    private void writeBackupFile(String backupId, YamlConfiguration snapshot) throws IOException {
+        String content = snapshot.saveToString();
+        synchronized (backupLock) {
+            File backupFile = new File(backupFolder, "backup-" + backupId + "-" + snapshot.getString("type") + ".yml.gz");
+            File tempFile = new File(backupFile.getPath() + ".tmp");
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(tempFile)), StandardCharsets.UTF_8)) {
+                writer.write(content);
+            }
+            Files.move(tempFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Mantiene gli ultimi `backups.keep-full` backup completi e gli incrementali successivi, eliminando il resto.
+     */
+    private void deleteExpiredBackups() {
+        int keepFull = Math.max(1, getConfig().getInt("backups.keep-full", 7));
+        synchronized (backupLock) {
+            List<File> backupFiles = getBackupFiles();
+            List<File> fullBackups = backupFiles.stream().filter(this::isFullBackup).collect(Collectors.toList());
+            if (fullBackups.size() <= keepFull) {
+                return;
+            }
+            String oldestKept = fullBackups.get(fullBackups.size() - keepFull).getName();
+            for (File backupFile : backupFiles) {
+                if (backupFile.getName().compareTo(oldestKept) < 0 && !backupFile.delete()) {
+                    getLogger().log(Level.WARNING, "Impossibile eliminare il backup scaduto " + backupFile.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Restituisce i file di backup ordinati dal più vecchio al più recente.
+     */
+    private List<File> getBackupFiles() {
+        File[] files = backupFolder.listFiles((dir, name) -> name.startsWith("backup-") && name.endsWith(".yml.gz"));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        List<File> backupFiles = new ArrayList<>(Arrays.asList(files));
+        backupFiles.sort(Comparator.comparing(File::getName));
+        return backupFiles;
+    }
+
+    private String getBackupId(File backupFile) {
+        String name = backupFile.getName();
+        return name.substring("backup-".length(), name.lastIndexOf('-'));
+    }
+
+    private boolean isFullBackup(File backupFile) {
+        return backupFile.getName().endsWith("-full.yml.gz");
+    }
+
+    /**
+     * Mostra gli ultimi punti di backup disponibili per il ripristino.
+     *
+     * @param sender Chi ha richiesto l'elenco.
+     */
+    private void listBackups(CommandSender sender) {
+        List<File> backupFiles = getBackupFiles();
+        if (backupFiles.isEmpty()) {
+            sender.sendMessage(prefix + ChatColor.GRAY + "Nessun backup disponibile.");
+            return;
+        }
+        sender.sendMessage(prefix + ChatColor.GOLD + "Backup disponibili (" + backupFiles.size() + "):");
+        for (File backupFile : backupFiles.subList(Math.max(0, backupFiles.size() - BACKUP_LIST_MAX_RESULTS), backupFiles.size())) {
+            sender.sendMessage(ChatColor.GRAY + getBackupId(backupFile) + ChatColor.DARK_GRAY + " ("
+                    + (isFullBackup(backupFile) ? "completo" : "incrementale") + ", " + (backupFile.length() / 1024) + " KB)");
+        }
+    }
+
+    /**
+     * Ricostruisce i dati dei giocatori fino al punto di backup indicato: legge in background l'ultimo backup
+     * completo precedente e applica in ordine gli incrementali successivi, poi sostituisce i profili presenti nel backup
+     * e li toglie dall'archivio freddo, così nessun giocatore resta sia nei dati attivi sia nell'archivio.
+     * I giocatori assenti dal backup (archiviati a quel punto, o arrivati dopo) restano come sono, attivi o archiviati:
+     * il backup non li conosce e non può sostituirli.
+     * La sostituzione avviene sotto il lock dell'archivio e, per ogni giocatore, sotto il suo lock, quindi non si
+     * sovrappone né a un'archiviazione o a un ripristino all'ingresso né alle operazioni amministrative.
+     *
+     * @param sender Chi ha richiesto il ripristino.
+     * @param backupId L'identificativo del punto di backup.
+     */
+    private void restoreBackup(CommandSender sender, String backupId) {
+        sender.sendMessage(prefix + ChatColor.GRAY + "Ripristino del backup " + backupId + " in corso...");
+        getServer().getAsyncScheduler().runNow(this, task -> {
+            Map<UUID, ConfigurationSection> restoredProfiles = new LinkedHashMap<>();
+            String error = null;
+            try {
+                synchronized (backupLock) {
+                    List<File> backupFiles = getBackupFiles();
+                    int target = -1;
+                    for (int i = 0; i < backupFiles.size(); i++) {
+                        if (getBackupId(backupFiles.get(i)).equals(backupId)) {
+                            target = i;
+                        }
+                    }
+                    int start = target;
+                    while (start >= 0 && !isFullBackup(backupFiles.get(start))) {
+                        start--;
+                    }
+                    if (target < 0) {
+                        error = "Backup non trovato: " + backupId;
+                    } else if (start < 0) {
+                        error = "Nessun backup completo precedente a " + backupId + ".";
+                    } else {
+                        for (File backupFile : backupFiles.subList(start, target + 1)) {
+                            applyBackupFile(backupFile, restoredProfiles);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                getLogger().log(Level.SEVERE, "Impossibile leggere il backup " + backupId + ": " + e.getMessage());
+                error = "Lettura del backup non riuscita: " + e.getMessage();
+            }
+            if (error != null) {
+                String failure = error;
+                runForSender(sender, () -> sender.sendMessage(prefix + ChatColor.RED + failure));
+                return;
+            }
+
+            int keptPlayers;
+            String archiveError = null;
+            synchronized (coldArchiveLock) {
+                Set<UUID> knownPlayers = getKnownPlayers();
+                knownPlayers.removeAll(restoredProfiles.keySet());
+                keptPlayers = knownPlayers.size();
+                restoredProfiles.forEach((playerUUID, profile) -> {
+                    synchronized (playerDataLock(playerUUID)) {
+                        clearPlayerProfile(playerUUID);
+                        readPlayerProfile(profile, playerUUID);
+                        invalidatePlaceholders(playerUUID);
+                    }
+                });
+                try {
+                    removeFromColdArchive(restoredProfiles.keySet());
+                } catch (IOException e) {
+                    // Le copie rimaste nell'archivio sono più recenti: all'ingresso sostituiranno quelle ripristinate.
+                    getLogger().log(Level.SEVERE, "Impossibile togliere dall'archivio i giocatori ripristinati: " + e.getMessage());
+                    archiveError = e.getMessage();
+                }
+            }
+            // I giocatori online restano attivi e passano alla stagione corrente.
+            for (Player online : Bukkit.getOnlinePlayers()) {
+                ensurePlayerSeason(online.getUniqueId());
+                lastSeenDates.put(online.getUniqueId(), LocalDate.now());
+            }
+            requestPlayerDataSave();
+            dirtyPlayers.clear();
+            backupsSinceFull.set(-1);
+            getLogger().log(Level.WARNING, "Dati giocatori ripristinati dal backup " + backupId + " da " + sender.getName() + ".");
+            String result = ChatColor.GREEN + "Ripristinati " + restoredProfiles.size() + " giocatori dal backup " + backupId
+                    + ", mantenuti " + keptPlayers + " giocatori assenti dal backup."
+                    + (archiveError != null ? ChatColor.RED + " Pulizia dell'archivio non riuscita: " + archiveError : "");
+            runForSender(sender, () -> sender.sendMessage(prefix + result));
+        });
+    }
+
+    /**
+     * Applica un file di backup ai profili ricostruiti: i profili presenti sostituiscono quelli precedenti
+     * e i giocatori rimossi vengono eliminati.
+     *
+     * @param backupFile Il file di backup da leggere.
+     * @param restoredProfiles UUID del giocatore -> Profilo ricostruito finora.
+     */
+    private void applyBackupFile(File backupFile, Map<UUID, ConfigurationSection> restoredProfiles) throws IOException {
+        YamlConfiguration backup = new YamlConfiguration();
+        try (GZIPInputStream input = new GZIPInputStream(new FileInputStream(backupFile))) {
+            backup.loadFromString(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            throw new IOException("backup non valido: " + backupFile.getName(), e);
+        }
+
+        if (isFullBackup(backupFile)) {
+            restoredProfiles.clear();
+        }
+        ConfigurationSection players = backup.getConfigurationSection("players");
+        if (players != null) {
+            for (String uuidStr : players.getKeys(false)) {
+                try {
+                    restoredProfiles.put(UUID.fromString(uuidStr), players.getConfigurationSection(uuidStr));
+                } catch (IllegalArgumentException e) {
+                    getLogger().log(Level.WARNING, "UUID non valido nel backup " + backupFile.getName() + ": " + uuidStr);
+                }
+            }
+        }
+        for (String uuidStr : backup.getStringList("removed")) {
+            try {
+                restoredProfiles.remove(UUID.fromString(uuidStr));
+            } catch (IllegalArgumentException e) {
+                getLogger().log(Level.WARNING, "UUID non valido nel backup " + backupFile.getName() + ": " + uuidStr);
+            }
+        }
+    }
+
+    // --- Sezione Gestione Cassetta Ricompense ---
+
+    /**
+     * Consegna degli item al giocatore con una sola operazione sull'inventario.
+     * Si basa sulla mappa degli avanzi restituita da `addItem`, che tiene conto degli stack parziali:
+     * gli avanzi vengono messi nella cassetta invece di essere droppati a terra.
+     *
+     * @param player Il giocatore a cui consegnare gli item.
+     * @param items Gli item da consegnare.
+     */
+    private void deliverRewardItems(Player player, List<ItemStack> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, ItemStack> leftovers = player.getInventory().addItem(items.toArray(new ItemStack[0]));
+        if (!leftovers.isEmpty()) {
+            leftovers.values().forEach(item -> addToMailbox(player.getUniqueId(), item));
+            sendMessage(player, "mailbox-stored");
+        }
+    }
+
+    /**
+     * Aggiunge un item alla cassetta di un giocatore, riempiendo prima gli stack simili già presenti
+     * così la cassetta resta compatta.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @param item L'item da mettere nella cassetta.
+     */
+    private void addToMailbox(UUID playerUUID, ItemStack item) {
+        mergeIntoStacks(pendingRewardMailboxes.computeIfAbsent(playerUUID, uuid -> new CopyOnWriteArrayList<>()), item);
+        markPlayerDirty(playerUUID);
+    }
+
+    /**
+     * Aggiunge un item a una lista di stack, riempiendo prima gli stack simili non pieni
+     * e creando nuovi stack solo per la parte che avanza. Gli stack esistenti vengono sostituiti
+     * e mai modificati, così chi sta leggendo la lista non vede quantità a metà aggiornamento.
+     *
+     * @param stacks La lista di stack da aggiornare.
+     * @param item L'item da aggiungere.
+     */
+    private static void mergeIntoStacks(List<ItemStack> stacks, ItemStack item) {
+        int remaining = item.getAmount();
+        int maxStackSize = Math.max(1, item.getMaxStackSize());
+
+        for (int i = 0; i < stacks.size() && remaining > 0; i++) {
+            ItemStack pending = stacks.get(i);
+            if (pending.isSimilar(item) && pending.getAmount() < maxStackSize) {
+                int moved = Math.min(remaining, maxStackSize - pending.getAmount());
+                ItemStack merged = pending.clone();
+                merged.setAmount(pending.getAmount() + moved);
+                stacks.set(i, merged);
+                remaining -= moved;
+            }
+        }
+
+        while (remaining > 0) {
+            ItemStack stack = item.clone();
+            stack.setAmount(Math.min(remaining, maxStackSize));
+            stacks.add(stack);
+            remaining -= stack.getAmount();
+        }
+    }
+
+    /**
+     * Prova a consegnare gli item della cassetta al giocatore.
+     * Quello che ancora non entra nell'inventario resta nella cassetta.
+     *
+     * @param player Il giocatore.
+     * @param index L'indice dell'item da consegnare, oppure -1 per consegnarli tutti.
+     */
+    private void redeliverMailbox(Player player, int index) {
+        UUID playerUUID = player.getUniqueId();
+        List<ItemStack> mailbox = pendingRewardMailboxes.get(playerUUID);
+        if (mailbox == null || mailbox.isEmpty()) {
+            sendMessage(player, "mailbox-empty");
+            return;
+        }
+        if (index >= mailbox.size()) {
+            return;
+        }
+
+        // Estrae gli item da consegnare e li consegna con una sola chiamata a addItem.
+        List<ItemStack> toDeliver;
+        if (index < 0) {
+            toDeliver = new ArrayList<>(mailbox);
+            mailbox.clear();
+        } else {
+            toDeliver = Collections.singletonList(mailbox.remove(index));
+        }
+        markPlayerDirty(playerUUID);
+
+        Map<Integer, ItemStack> leftovers = player.getInventory().addItem(toDeliver.toArray(new ItemStack[0]));
+        leftovers.values().forEach(item -> addToMailbox(playerUUID, item));
+
+        if (pendingRewardMailboxes.getOrDefault(playerUUID, Collections.emptyList()).isEmpty()) {
+            pendingRewardMailboxes.remove(playerUUID);
+        }
+        sendMessage(player, leftovers.isEmpty() ? "mailbox-delivered" : "mailbox-still-full");
     }
 
     // --- Sezione Gestione BattlePass ---
@@ -791,125 +3336,310 @@ public class DailyRewardsPro extends JavaPlugin implements Listener {
      *
      * @param player Il giocatore a cui aggiungere XP.
      * @param xpToAdd La quantità di XP da aggiungere.
+     * @param source L'origine della XP (chiave della ricompensa o evento), registrata nell'audit.
      */
-    private void addBattlePassXp(Player player, int xpToAdd) {
-        UUID playerUUID = player.getUniqueId();
-        int currentXP = playerBattlePassXp.getOrDefault(playerUUID, 0);
-        int previousLevel = calculateBattlePassLevel(currentXP);
+    private void addBattlePassXp(Player player, int xpToAdd, String source) {
+        if (grantBattlePassXp(player.getUniqueId(), player, xpToAdd, source)) {
+            requestPlayerDataSave(); // Salva i dati XP aggiornati.
+        }
+    }
+
+    /**
+     * Aggiunge punti XP al BattlePass di un giocatore, anche offline, senza salvare su disco.
+     * Usato direttamente dalle operazioni amministrative in blocco, che salvano una sola volta alla fine.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @param player Il giocatore da notificare, o null se è offline.
+     * @param xpToAdd La quantità di XP da aggiungere.
+     * @param source L'origine della XP, registrata nell'audit.
+     * @return true se la XP è stata assegnata, false se la stagione è terminata.
+     */
+    private boolean grantBattlePassXp(UUID playerUUID, Player player, int xpToAdd, String source) {
+        BattlePassSeason season;
+        Integer updatedXP;
+        AtomicBoolean added = new AtomicBoolean();
+        do {
+            season = ensurePlayerSeason(playerUUID);
+
+            // A stagione terminata la XP non viene più assegnata fino all'inizio della successiva.
+            if (season.hasEnded(LocalDate.now())) {
+                if (player != null) {
+                    sendMessage(player, "battlepass-season-ended");
+                }
+                return false;
+            }
 
-        int newXP = currentXP + xpToAdd;
-        playerBattlePassXp.put(playerUUID, newXP);
+            // Somma atomica: XP assegnata contemporaneamente da più regioni non va persa. La somma avviene
+            // solo se il giocatore è ancora nella stagione letta; altrimenti si riprova con quella nuova.
+            int generation = season.getGeneration();
+            updatedXP = playerBattlePassXp.compute(playerUUID, (uuid, xp) -> {
+                Integer playerGeneration = playerSeasonGenerations.get(uuid);
+                if (playerGeneration == null || playerGeneration != generation) {
+                    return xp;
+                }
+                added.set(true);
+                return (xp != null ? xp : 0) + xpToAdd;
+            });
+        } while (!added.get());
+        int newXP = updatedXP;
+        int previousLevel = season.calculateLevel(newXP - xpToAdd);
+        markPlayerDirty(playerUUID);
+        recordAuditEvent(AuditEventType.XP_GRANT, playerUUID, source, xpToAdd);
 
-        int newLevel = calculateBattlePassLevel(newXP);
+        int newLevel = season.calculateLevel(newXP);
 
         // Notifica il guadagno di XP.
-        player.sendMessage(prefix + battlePassXpGainMessage.replace("%xp%", String.valueOf(xpToAdd)));
+        if (player != null) {
+            sendMessage(player, "battlepass-xp-gain", "xp", String.valueOf(xpToAdd));
+        }
 
         // Controlla se il giocatore è salito di livello.
         if (newLevel > previousLevel) {
-            player.sendMessage(prefix + battlePassLevelUpMessage.replace("%level%", String.valueOf(newLevel)));
-            getLogger().log(Level.INFO, player.getName() + " ha raggiunto il livello BattlePass " + newLevel + " con " + newXP + " XP.");
+            if (player != null) {
+                sendMessage(player, "battlepass-level-up", "level", String.valueOf(newLevel));
+            }
+            getLogger().log(Level.FINE, () -> playerUUID + " ha raggiunto il livello BattlePass " + newLevel + " con " + newXP + " XP.");
 
             // Loop attraverso ogni livello sbloccato tra il precedente e il nuovo.
             for (int level = previousLevel + 1; level <= newLevel; level++) {
-                if (battlePassLevelRewards.containsKey(level)) {
+                if (season.getLevelRewards().containsKey(level)) {
                     // Non dare la ricompensa automaticamente, ma rendila riscattabile tramite GUI.
                     // Se desideri che siano automatiche, sposta giveBattlePassReward qui.
-                    // Per ora, solo la notifica del livello.
-                    getLogger().log(Level.INFO, "Ricompensa per il livello " + level + " sbloccata per " + player.getName() + ".");
+                    // Per ora, solo la registrazione dello sblocco nell'audit.
+                    recordAuditEvent(AuditEventType.LEVEL_UNLOCK, playerUUID, "level_" + level, newXP);
                 }
             }
         }
-        savePlayerDataToFile(); // Salva i dati XP aggiornati.
-    }
-
-    /**
-     * Calcola il livello BattlePass di un giocatore basandosi sulla sua XP.
-     *
-     * @param xp I punti esperienza del giocatore.
-     * @return Il livello BattlePass raggiunto.
-     */
-    private int calculateBattlePassLevel(int xp) {
-        int currentLevel = 1;
-        // Ordina i livelli in modo decrescente per trovare il livello più alto raggiunto.
-        List<Integer> sortedLevels = new ArrayList<>(battlePassLevelThresholds.keySet());
-        sortedLevels.sort(Collections.reverseOrder());
-
-        for (int level : sortedLevels) {
-            if (xp >= battlePassLevelThresholds.get(level)) {
-                currentLevel = level;
-                break;
-            }
-        }
-        return currentLevel;
+        invalidatePlaceholders(playerUUID);
+        return true;
     }
 
     /**
-     * Controlla se la ricompensa per un dato livello del BattlePass è già stata riscattata.
-     * Questo richiede un campo nel data.yml per ogni giocatore che tenga traccia dei livelli riscattati.
+     * Controlla se la ricompensa per un dato livello del BattlePass è già stata riscattata nella stagione del giocatore.
      *
      * @param playerUUID L'UUID del giocatore.
      * @param level Il livello del BattlePass da controllare.
      * @return true se la ricompensa è stata riscattata, false altrimenti.
      */
     private boolean hasBattlePassRewardClaimed(UUID playerUUID, int level) {
-        String path = "players." + playerUUID.toString() + ".battlepass_claimed_levels";
-        List<Integer> claimedLevels = dataConfig.getIntegerList(path);
-        return claimedLevels.contains(level);
+        Set<Integer> claimedLevels = playerClaimedLevels.get(playerUUID);
+        return claimedLevels != null && claimedLevels.contains(level);
     }
 
     /**
      * Marchia una ricompensa di un livello BattlePass come riscattata per un giocatore.
      *
      * @param playerUUID L'UUID del giocatore.
+     * @param season La stagione a cui appartiene il livello.
      * @param level Il livello del BattlePass la cui ricompensa è stata riscattata.
+     * @return true se il livello è stato marcato ora, false se era già riscattato o la stagione è cambiata.
      */
-    private void setBattlePassRewardClaimed(UUID playerUUID, int level) {
-        String path = "players." + playerUUID.toString() + ".battlepass_claimed_levels";
-        List<Integer> claimedLevels = dataConfig.getIntegerList(path);
-        if (!claimedLevels.contains(level)) {
-            claimedLevels.add(level);
-            dataConfig.set(path, claimedLevels);
-            getLogger().log(Level.INFO, "Livello BattlePass " + level + " segnato come riscattato per " + playerUUID.toString());
+    private boolean setBattlePassRewardClaimed(UUID playerUUID, BattlePassSeason season, int level) {
+        if (addClaimedLevels(playerUUID, season, Collections.singletonList(level)).isEmpty()) {
+            return false;
         }
+        markPlayerDirty(playerUUID);
+        invalidatePlaceholders(playerUUID);
+        getLogger().log(Level.FINE, () -> "Livello BattlePass " + level + " segnato come riscattato per " + playerUUID);
+        return true;
+    }
+
+    /**
+     * Aggiunge dei livelli a quelli riscattati dal giocatore, solo se è ancora nella stagione indicata.
+     * L'aggiunta avviene nel compute sulla XP, lo stesso del cambio di stagione e della copia del profilo:
+     * un riscatto non finisce nella stagione successiva e non viene mai copiato a metà. Dentro, il compute
+     * sull'insieme dei livelli la serializza con le revoche.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @param season La stagione a cui appartengono i livelli.
+     * @param levels I livelli da aggiungere.
+     * @return I livelli aggiunti ora, nell'ordine ricevuto; quelli già riscattati vengono esclusi.
+     */
+    private List<Integer> addClaimedLevels(UUID playerUUID, BattlePassSeason season, List<Integer> levels) {
+        int generation = season.getGeneration();
+        List<Integer> addedLevels = new ArrayList<>();
+        playerBattlePassXp.compute(playerUUID, (uuid, xp) -> {
+            Integer playerGeneration = playerSeasonGenerations.get(uuid);
+            if (playerGeneration == null || playerGeneration != generation) {
+                return xp;
+            }
+            playerClaimedLevels.compute(uuid, (key, claimedLevels) -> {
+                Set<Integer> claimed = claimedLevels != null ? claimedLevels : ConcurrentHashMap.newKeySet();
+                levels.stream().filter(claimed::add).forEach(addedLevels::add);
+                return claimed.isEmpty() ? null : claimed;
+            });
+            return xp;
+        });
+        return addedLevels;
     }
 
     /**
      * Assegna le ricompense di un determinato livello del BattlePass al giocatore.
      *
      * @param player Il giocatore a cui dare le ricompense.
+     * @param season La stagione a cui appartiene il livello.
      * @param level Il livello del BattlePass per cui dare le ricompense.
      */
-    private void giveBattlePassReward(Player player, int level) {
+    private void giveBattlePassReward(Player player, BattlePassSeason season, int level) {
         // Assegna gli item definiti per il livello.
-        List<ItemStack> itemsToGive = battlePassLevelRewards.get(level);
+        List<ItemStack> itemsToGive = season.getLevelRewards().get(level);
         if (itemsToGive != null && !itemsToGive.isEmpty()) {
-            for (ItemStack item : itemsToGive) {
-                // Clona l'item per sicurezza prima di darlo.
-                ItemStack clonedItem = item.clone();
-                if (player.getInventory().firstEmpty() == -1) {
-                    player.getWorld().dropItemNaturally(player.getLocation(), clonedItem);
-                    player.sendMessage(prefix + ChatColor.YELLOW + "Il tuo inventario è pieno, la ricompensa del BattlePass è stata droppata a terra!");
-                } else {
-                    player.getInventory().addItem(clonedItem);
-                }
-            }
+            // Clona gli item per sicurezza prima di darli.
+            deliverRewardItems(player, itemsToGive.stream().map(ItemStack::clone).collect(Collectors.toList()));
         }
 
         // Esegui i comandi definiti per il livello.
-        List<String> commandsToExecute = battlePassLevelCommands.get(level);
+        List<String> commandsToExecute = season.getLevelCommands().get(level);
         if (commandsToExecute != null && !commandsToExecute.isEmpty()) {
-            for (String cmd : commandsToExecute) {
-                String processedCmd = cmd.replace("%player%", player.getName());
-                // Esegui il comando sul thread principale per evitare problemi.
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCmd);
-                    }
-                }.runTask(this);
+            dispatchRewardCommands(player, commandsToExecute);
+        }
+        getLogger().log(Level.FINE, () -> "Date ricompense del BattlePass per il livello " + level + " a " + player.getName());
+    }
+
+    /**
+     * Esegue come console una serie di comandi ricompensa in un unico task sulla regione globale,
+     * l'unico thread da cui Folia accetta i comandi della console.
+     *
+     * @param player Il giocatore che sostituisce `%player%` nei comandi.
+     * @param commands I comandi da eseguire.
+     */
+    private void dispatchRewardCommands(Player player, List<String> commands) {
+        List<String> processedCommands = commands.stream()
+                .map(cmd -> cmd.replace("%player%", player.getName()))
+                .collect(Collectors.toList());
+
+        getServer().getGlobalRegionScheduler().execute(this, () -> {
+            for (String processedCmd : processedCommands) {
+                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCmd);
+            }
+        });
+    }
+
+    /**
+     * Restituisce i livelli raggiunti dal giocatore nella stagione indicata e non ancora riscattati.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @param season La stagione restituita da {@link #ensurePlayerSeason(UUID)}.
+     * @return I livelli riscattabili, in ordine crescente.
+     */
+    private List<Integer> getClaimableBattlePassLevels(UUID playerUUID, BattlePassSeason season) {
+        return getClaimableBattlePassLevels(season, playerBattlePassXp.getOrDefault(playerUUID, 0),
+                playerClaimedLevels.getOrDefault(playerUUID, Collections.emptySet()));
+    }
+
+    /**
+     * Restituisce i livelli raggiunti con la XP indicata e non presenti tra quelli già riscattati.
+     *
+     * @param season La stagione a cui appartengono i livelli.
+     * @param playerXP La XP del giocatore.
+     * @param claimedLevels I livelli già riscattati.
+     * @return I livelli riscattabili, in ordine crescente.
+     */
+    private List<Integer> getClaimableBattlePassLevels(BattlePassSeason season, int playerXP, Set<Integer> claimedLevels) {
+        List<Integer> claimableLevels = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : season.getLevelThresholds().entrySet()) {
+            if (playerXP >= entry.getValue() && !claimedLevels.contains(entry.getKey())) {
+                claimableLevels.add(entry.getKey());
             }
         }
-        getLogger().log(Level.INFO, "Date ricompense del BattlePass per il livello " + level + " a " + player.getName());
+        return claimableLevels;
+    }
+
+    /**
+     * Riscatta in un'unica transazione tutte le ricompense dei livelli raggiunti e non riscattati.
+     * Gli item vengono accorpati nel minor numero di stack e consegnati con una sola operazione sull'inventario,
+     * i comandi eseguiti in un unico task, i livelli salvati con una sola scrittura e la GUI aggiornata una volta.
+     *
+     * @param player Il giocatore che riscatta.
+     */
+    private void claimAllBattlePassRewards(Player player) {
+        UUID playerUUID = player.getUniqueId();
+        BattlePassSeason season = activeSeason;
+        if (!beginClaim(playerUUID)) {
+            return; // Un altro riscatto è in corso: il clic duplicato viene ignorato.
+        }
+
+        List<Integer> claimableLevels;
+        try {
+            if (ensurePlayerSeason(playerUUID) != season) {
+                return; // La stagione è cambiata dopo il clic.
+            }
+            claimableLevels = getClaimableBattlePassLevels(playerUUID, season);
+            if (claimableLevels.isEmpty()) {
+                sendMessage(player, "battlepass-nothing-to-claim");
+                return;
+            }
+
+            // Marchia tutti i livelli come riscattati prima della consegna: vengono consegnati solo quelli
+            // che questo riscatto ha effettivamente aggiunto all'insieme.
+            claimableLevels.retainAll(addClaimedLevels(playerUUID, season, claimableLevels));
+            if (claimableLevels.isEmpty()) {
+                sendMessage(player, "battlepass-nothing-to-claim");
+                return;
+            }
+            markPlayerDirty(playerUUID);
+            invalidatePlaceholders(playerUUID);
+            deliverBattlePassLevels(player, season, claimableLevels);
+            requestPlayerDataSave(); // Una sola scrittura per tutti i livelli riscattati.
+        } finally {
+            releaseClaim(playerUUID);
+        }
+
+        for (int level : claimableLevels) {
+            recordAuditEvent(AuditEventType.CLAIM_LEVEL, playerUUID, "level_" + level, 1);
+        }
+        getLogger().log(Level.FINE, () -> player.getName() + " ha riscattato le ricompense dei livelli " + claimableLevels);
+        sendMessage(player, "battlepass-claimed-all", "count", String.valueOf(claimableLevels.size()));
+        openBattlePassGUI(player);
+    }
+
+    /**
+     * Consegna in blocco le ricompense di più livelli: item accorpati e consegnati con una sola operazione,
+     * comandi eseguiti in un unico task.
+     *
+     * @param player Il giocatore.
+     * @param season La stagione a cui appartengono i livelli.
+     * @param levels I livelli da consegnare.
+     */
+    private void deliverBattlePassLevels(Player player, BattlePassSeason season, List<Integer> levels) {
+        List<ItemStack> mergedItems = new ArrayList<>();
+        List<String> commandsToExecute = new ArrayList<>();
+        for (int level : levels) {
+            season.getLevelRewards().getOrDefault(level, Collections.emptyList())
+                    .forEach(item -> mergeIntoStacks(mergedItems, item));
+            commandsToExecute.addAll(season.getLevelCommands().getOrDefault(level, Collections.emptyList()));
+        }
+
+        deliverRewardItems(player, mergedItems);
+        if (!commandsToExecute.isEmpty()) {
+            dispatchRewardCommands(player, commandsToExecute);
+        }
+    }
+
+    // --- Sezione Stato dei Riscatti ---
+
+    /**
+     * Avvia un riscatto per il giocatore passando dallo stato libero a quello "in corso" con un compare-and-set.
+     * Va sempre chiuso con {@link #releaseClaim(UUID)} in un blocco finally.
+     * Il riscatto viene registrato in memoria prima della consegna e salvato su disco dal salvataggio asincrono:
+     * un crash tra la consegna e il salvataggio successivo può permettere di riscattarlo di nuovo al riavvio.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     * @return true se il riscatto è stato avviato, false se un altro riscatto del giocatore è già in corso.
+     */
+    private boolean beginClaim(UUID playerUUID) {
+        return playerClaimStates.computeIfAbsent(playerUUID, uuid -> new AtomicBoolean()).compareAndSet(false, true);
+    }
+
+    /**
+     * Riporta lo stato del giocatore a libero. Va chiamato solo da chi ha avviato il riscatto.
+     *
+     * @param playerUUID L'UUID del giocatore.
+     */
+    private void releaseClaim(UUID playerUUID) {
+        AtomicBoolean state = playerClaimStates.get(playerUUID);
+        if (state != null) {
+            state.set(false);
+        }
     }
 }